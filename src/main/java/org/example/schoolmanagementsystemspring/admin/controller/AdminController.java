@@ -1,13 +1,17 @@
 package org.example.schoolmanagementsystemspring.admin.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.schoolmanagementsystemspring.admin.dto.*;
 import org.example.schoolmanagementsystemspring.admin.service.AdminService;
+import org.example.schoolmanagementsystemspring.admin.service.UserImportService;
 import org.example.schoolmanagementsystemspring.authentication.exception.UserAlreadyExistsException;
 import org.example.schoolmanagementsystemspring.user.exception.UserNotFoundException;
 import org.springframework.data.domain.Page;
@@ -15,6 +19,9 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import static org.springframework.http.HttpStatus.ACCEPTED;
@@ -43,6 +50,10 @@ public class AdminController {
      */
     private final AdminService service;
 
+    private final UserImportService importService;
+
+    private final ObjectMapper objectMapper;
+
     /**
      * The register method handles POST requests to /api/v1/admin/register.
      * It registers a new admin user with the details provided in the request body.
@@ -63,6 +74,32 @@ public class AdminController {
         service.register(request);
     }
 
+    /**
+     * The importUsers method handles POST requests to /api/v1/admin/users/import.
+     * It registers the users of a CSV or NDJSON file, streamed in the request body.
+     * The response is streamed as NDJSON while the file is imported:
+     * one line for each row that was not imported, one line of progress after each batch and a summary line at the end.
+     *
+     * @param request  the HttpServletRequest object containing the file.
+     * @param response the HttpServletResponse object for sending the import events.
+     * @throws IOException if an input or output exception occurred.
+     */
+    @Operation(summary = "Import Users", description = "Register the users of a CSV or NDJSON file.")
+    @PreAuthorize("hasAuthority('admin:create')")
+    @PostMapping(value = "/users/import", consumes = {"text/csv", "application/x-ndjson"}, produces = "application/x-ndjson")
+    public void importUsers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ImportFormat format = ImportFormat.fromContentType(request.getContentType());
+        log.info("Importing users from {}", format);
+        response.setContentType(ImportFormat.NDJSON.getMediaType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        OutputStream output = response.getOutputStream();
+        importService.importUsers(format, request.getInputStream(), event -> {
+            output.write(objectMapper.writeValueAsBytes(event));
+            output.write('\n');
+            output.flush();
+        });
+    }
+
     @Operation(summary = "Administrator Information", description = "Get information about the administrator.")
     @PreAuthorize("hasAuthority('admin:read')")
     @GetMapping
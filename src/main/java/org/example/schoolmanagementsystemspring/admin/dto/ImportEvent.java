@@ -0,0 +1,44 @@
+package org.example.schoolmanagementsystemspring.admin.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * The ImportEvent record is one line of the response of the bulk user import.
+ * An "error" event reports a row that was not imported, a "progress" event is sent after each batch
+ * and a "summary" event ends the response.
+ *
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ImportEvent(
+
+        String type,
+
+        Integer line,
+
+        String email,
+
+        String message,
+
+        Integer processed,
+
+        Integer imported,
+
+        Integer failed
+
+) {
+
+    public static ImportEvent error(int line, String email, String message) {
+        return new ImportEvent("error", line, email, message, null, null, null);
+    }
+
+    public static ImportEvent progress(int processed, int imported, int failed) {
+        return new ImportEvent("progress", null, null, null, processed, imported, failed);
+    }
+
+    public static ImportEvent summary(int processed, int imported, int failed) {
+        return new ImportEvent("summary", null, null, null, processed, imported, failed);
+    }
+}
@@ -0,0 +1,41 @@
+package org.example.schoolmanagementsystemspring.admin.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+
+/**
+ * The ImportFormat enum represents the formats accepted by the bulk user import.
+ * CSV files must start with a header line that names the columns, NDJSON files have one JSON object per line.
+ *
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ImportFormat {
+
+    CSV("text/csv"),
+
+    NDJSON("application/x-ndjson");
+
+    private final String mediaType;
+
+    /**
+     * This method finds the format of a request from its content type.
+     *
+     * @param contentType the content type of the request.
+     * @return the format of the request.
+     * @throws IllegalArgumentException if the content type is not supported.
+     */
+    public static ImportFormat fromContentType(String contentType) {
+        if (contentType != null) {
+            MediaType type = MediaType.parseMediaType(contentType);
+            for (ImportFormat format : values())
+                if (MediaType.parseMediaType(format.mediaType).isCompatibleWith(type))
+                    return format;
+        }
+        throw new IllegalArgumentException("Unsupported import format: " + contentType);
+    }
+}
@@ -25,6 +25,42 @@ public record ResponseCourse(
         SchoolDto school
 ) implements Serializable {
 
+    /**
+     * The constructor used by the course page query, which selects the columns of the course, its teacher and its school
+     * in a single statement. A missing teacher or school is represented by an empty object.
+     */
+    public ResponseCourse(
+            Integer id,
+            String courseName,
+            String courseDescription,
+            String preRequisites,
+            String room,
+            String courseCode,
+            GradeLevel gradeLevel,
+            Integer teacherId,
+            String teacherFirstName,
+            String teacherLastName,
+            String teacherEmail,
+            String teacherDepartment,
+            Integer schoolId,
+            String schoolName,
+            String schoolEmail,
+            String schoolZipCode,
+            SchoolType schoolType
+    ) {
+        this(
+                id,
+                courseName,
+                courseDescription,
+                preRequisites,
+                room,
+                courseCode,
+                gradeLevel,
+                new TeacherDto(teacherId, teacherFirstName, teacherLastName, teacherEmail, teacherDepartment),
+                new SchoolDto(schoolEmail, schoolZipCode, schoolId, schoolName, schoolType)
+        );
+    }
+
     /**
      * DTO for {@link org.example.schoolmanagementsystemspring.teacher.entity.Teacher}
      */
@@ -24,6 +24,37 @@ public record ResponseParent(
         StudentDto studentResponsible
 ) implements Serializable {
 
+    /**
+     * The constructor used by the parent page query, which selects the columns of the parent and of the student
+     * it is responsible for in a single statement. A missing student is represented by an empty object.
+     */
+    public ResponseParent(
+            Integer id,
+            String firstName,
+            String lastName,
+            String email,
+            String description,
+            boolean isEnabled,
+            ParentType type,
+            String occupation,
+            Integer studentId,
+            String studentFirstName,
+            String studentLastName,
+            String studentEmail
+    ) {
+        this(
+                id,
+                firstName,
+                lastName,
+                email,
+                description,
+                isEnabled,
+                type,
+                occupation,
+                new StudentDto(studentId, studentFirstName, studentLastName, studentEmail)
+        );
+    }
+
     /**
      * DTO for {@link org.example.schoolmanagementsystemspring.student.entity.Student}
      */
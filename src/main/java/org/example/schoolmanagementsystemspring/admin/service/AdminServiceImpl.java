@@ -6,6 +6,7 @@ import org.example.schoolmanagementsystemspring.admin.dto.*;
 import org.example.schoolmanagementsystemspring.admin.mapper.UserMapper;
 import org.example.schoolmanagementsystemspring.authentication.exception.UserAlreadyExistsException;
 import org.example.schoolmanagementsystemspring.authentication.service.AuthenticationService;
+import org.example.schoolmanagementsystemspring.authentication.service.PasswordHashService;
 import org.example.schoolmanagementsystemspring.course.Course;
 import org.example.schoolmanagementsystemspring.course.CourseRepository;
 import org.example.schoolmanagementsystemspring.event.Event;
@@ -13,7 +14,6 @@ import org.example.schoolmanagementsystemspring.event.EventRepository;
 import org.example.schoolmanagementsystemspring.parent.repository.ParentRepository;
 import org.example.schoolmanagementsystemspring.school.entity.School;
 import org.example.schoolmanagementsystemspring.school.repository.SchoolRepository;
-import org.example.schoolmanagementsystemspring.student.entity.Student;
 import org.example.schoolmanagementsystemspring.student.repository.StudentRepository;
 import org.example.schoolmanagementsystemspring.teacher.entity.Teacher;
 import org.example.schoolmanagementsystemspring.teacher.repository.TeacherRepository;
@@ -25,9 +25,10 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 
@@ -54,12 +55,23 @@ public class AdminServiceImpl implements AdminService {
     private final TeacherRepository teacherRepository;
     private final StudentRepository studentRepository;
     private final ParentRepository parentRepository;
-    private final PasswordEncoder encoder;
+    private final PasswordHashService passwordHashService;
+    private final TransactionTemplate transactionTemplate;
     private final CourseRepository courseRepository;
     private final SchoolRepository schoolRepository;
     private final EventRepository eventRepository;
 
+    /**
+     * The register method registers a new user.
+     * The password is hashed before the transaction starts, so no database connection is held while hashing,
+     * and the user is saved with its activation code in a single transaction.
+     *
+     * @param request the request containing the user's information
+     * @throws UserAlreadyExistsException if the user already exists
+     * @throws UserNotFoundException      if the user is not found
+     */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void register(RequestUser request) throws UserAlreadyExistsException, UserNotFoundException {
         log.info("Registering user: {}", request.email());
 
@@ -70,148 +82,49 @@ public class AdminServiceImpl implements AdminService {
 
         User userMapped = userMapper.apply(request);
 
-        userMapped.setPassword(encoder.encode(request.password()));
+        userMapped.setPassword(passwordHashService.encode(request.password()));
 
-        userRepository.save(userMapped);
-
-        authenticationService.generateActivationCode(request.email());
+        transactionTemplate.executeWithoutResult(status -> authenticationService.generateActivationCodes(List.of(userRepository.save(userMapped))));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<ResponseTeacher> getTeachers(int page, int size) {
         log.info("Request a page of teachers with those parameters: page={}, size={}", page, size);
 
         Pageable pageable = PageRequest.of(page, size, Sort.by("firstName", "lastName").ascending());
 
-        var result = teacherRepository.findAll(pageable);
-
-        return result.map(param ->
-                ResponseTeacher
-                        .builder()
-                        .id(param.getId())
-                        .firstName(param.getFirstName())
-                        .lastName(param.getLastName())
-                        .email(param.getEmail())
-                        .description(param.getDescription())
-                        .department(param.getDepartment())
-                        .educationQualification(param.getEducationQualification())
-                        .experience(param.getExperience())
-                        .recognition(param.getRecognition())
-                        .teachMethod(param.getTeachMethod())
-                        .enabled(param.isEnabled())
-                        .build()
-        );
+        return teacherRepository.findTeacherPage(pageable);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<ResponseStudent> getStudents(int page, int size) {
         log.info("Request a page of students with those parameters: page={}, size={}", page, size);
 
         Pageable pageable = PageRequest.of(page, size, Sort.by("firstName", "lastName").ascending());
 
-        var result = studentRepository.findAll(pageable);
-
-        return result.map(param ->
-                ResponseStudent
-                        .builder()
-                        .id(param.getId())
-                        .firstName(param.getFirstName())
-                        .lastName(param.getLastName())
-                        .email(param.getEmail())
-                        .description(param.getDescription())
-                        .isEnabled(param.isEnabled())
-                        .studentIdentification(param.getStudentIdentification())
-                        .birthDate(param.getBirthDate())
-                        .gradeLevel(param.getGradeLevel())
-                        .medicalInformation(param.getMedicalInformation())
-                        .build()
-        );
+        return studentRepository.findStudentPage(pageable);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<ResponseParent> getParents(int page, int size) {
         log.info("Request a page of parents with those parameters: page={}, size={}", page, size);
 
         Pageable pageable = PageRequest.of(page, size, Sort.by("firstName", "lastName").ascending());
 
-        var result = parentRepository.findAll(pageable);
-
-        return result.map(param -> {
-                    if (param.getStudentResponsible() == null)
-                        param.setStudentResponsible(new Student());
-
-                    return ResponseParent
-                            .builder()
-                            .id(param.getId())
-                            .firstName(param.getFirstName())
-                            .lastName(param.getLastName())
-                            .email(param.getEmail())
-                            .description(param.getDescription())
-                            .isEnabled(param.isEnabled())
-                            .type(param.getType())
-                            .occupation(param.getOccupation())
-                            .studentResponsible(
-                                    ResponseParent.StudentDto
-                                            .builder()
-                                            .id(param.getStudentResponsible().getId())
-                                            .firstName(param.getStudentResponsible().getFirstName())
-                                            .lastName(param.getStudentResponsible().getLastName())
-                                            .email(param.getStudentResponsible().getEmail())
-                                            .build()
-                            )
-                            .build();
-                }
-        );
+        return parentRepository.findParentPage(pageable);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<ResponseCourse> getCourses(int page, int size) {
         log.info("Request a page of courses with those parameters: page={}, size={}", page, size);
 
         Pageable pageable = PageRequest.of(page, size, Sort.by("courseName").ascending());
 
-        var result = courseRepository.findAll(pageable);
-
-        return result.map(param -> {
-
-                    if (param.getTeacher() == null)
-                        param.setTeacher(new Teacher());
-
-                    if (param.getSchool() == null)
-                        param.setSchool(new School());
-
-                    return ResponseCourse
-                            .builder()
-                            .id(param.getId())
-                            .courseName(param.getCourseName())
-                            .courseDescription(param.getCourseDescription())
-                            .preRequisites(param.getPreRequisites())
-                            .room(param.getRoom())
-                            .courseCode(param.getCourseCode())
-                            .gradeLevel(param.getGradeLevel())
-                            .teacher(
-                                    ResponseCourse.TeacherDto
-                                            .builder()
-                                            .id(param.getTeacher().getId())
-                                            .firstName(param.getTeacher().getFirstName())
-                                            .lastName(param.getTeacher().getLastName())
-                                            .email(param.getTeacher().getEmail())
-                                            .department(param.getTeacher().getDepartment())
-                                            .build()
-                            )
-                            .school(
-                                    ResponseCourse.SchoolDto
-                                            .builder()
-                                            .email(param.getSchool().getEmail())
-                                            .zipCode(param.getSchool().getZipCode())
-                                            .id(param.getSchool().getId())
-                                            .name(param.getSchool().getName())
-                                            .schoolType(param.getSchool().getSchoolType())
-                                            .build()
-                            )
-                            .build();
-                }
-        );
+        return courseRepository.findCoursePage(pageable);
     }
 
     @Override
@@ -238,6 +151,7 @@ public class AdminServiceImpl implements AdminService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<SchoolResponse> getSchools() {
         log.info("Request all schools");
 
@@ -278,6 +192,7 @@ public class AdminServiceImpl implements AdminService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<EventResponse> getEvents(Integer schoolId, Integer page, Integer size) {
         log.info("Request a page of events with those parameters: schoolId={}, page={}, size={}", schoolId, page, size);
 
@@ -335,6 +250,7 @@ public class AdminServiceImpl implements AdminService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public AdminResponse getAdminInformation(Authentication authentication) throws UserNotFoundException {
         log.info("Getting admin information");
 
@@ -0,0 +1,210 @@
+package org.example.schoolmanagementsystemspring.admin.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.schoolmanagementsystemspring.admin.dto.ImportFormat;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The ImportRowReader class reads the rows of a bulk user import one at a time, so the file is never held in memory.
+ * A CSV file starts with a header line, its fields may be quoted and quoted fields may contain commas, quotes and line breaks.
+ * A NDJSON file has one JSON object per line.
+ * Empty values are left out of the rows, and blank lines are skipped.
+ * Lines are read character by character and only the first characters of a line are kept,
+ * so a line without line breaks cannot fill the memory, and a row longer than the maximum length is rejected.
+ * A row that cannot be read is returned with an error, so the import can report it and go on.
+ *
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+class ImportRowReader implements Closeable {
+
+    static final int MAX_RECORD_LENGTH = 64 * 1024;
+
+    private static final TypeReference<LinkedHashMap<String, Object>> ROW_TYPE = new TypeReference<>() {};
+
+    private final BufferedReader reader;
+
+    private final ImportFormat format;
+
+    private final ObjectMapper objectMapper;
+
+    private List<String> header;
+
+    private int line;
+
+    ImportRowReader(ImportFormat format, InputStream input, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * This method reads the next row.
+     *
+     * @return the next row, or null at the end of the file.
+     * @throws IOException if the file cannot be read, or the header of a CSV file is invalid.
+     */
+    Row next() throws IOException {
+        return format == ImportFormat.CSV ? nextCsv() : nextJson();
+    }
+
+    private Row nextJson() throws IOException {
+        String value;
+        do {
+            value = readLine(MAX_RECORD_LENGTH);
+            if (value == null) return null;
+            line++;
+        } while (value.isBlank());
+        if (value.length() > MAX_RECORD_LENGTH)
+            return new Row(line, Map.of(), "Row is too long");
+        try {
+            Map<String, Object> values = objectMapper.readValue(value, ROW_TYPE);
+            values.values().removeIf(field -> field == null || "".equals(field));
+            return new Row(line, values, null);
+        } catch (JsonProcessingException e) {
+            return new Row(line, Map.of(), "Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private Row nextCsv() throws IOException {
+        if (header == null) {
+            Record names = readRecord();
+            if (names == null) return null;
+            if (names.error() != null)
+                throw new IOException("Invalid header: " + names.error());
+            header = new ArrayList<>(names.fields().size());
+            for (String name : names.fields())
+                header.add(name.replace("\uFEFF", "").trim());
+        }
+        Record record = readRecord();
+        if (record == null) return null;
+        if (record.error() != null)
+            return new Row(record.line(), Map.of(), record.error());
+        if (record.fields().size() != header.size())
+            return new Row(record.line(), Map.of(), "Expected " + header.size() + " fields but found " + record.fields().size());
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String field = record.fields().get(i);
+            if (!field.isEmpty())
+                values.put(header.get(i), field);
+        }
+        return new Row(record.line(), values, null);
+    }
+
+    /**
+     * This method reads the fields of the next CSV record, which spans more than one line when a quoted field has line breaks.
+     * A record longer than the maximum length is reported as an error, and reading goes on from the next line.
+     *
+     * @return the next record, or null at the end of the file.
+     * @throws IOException if the file cannot be read.
+     */
+    private Record readRecord() throws IOException {
+        String value;
+        do {
+            value = readLine(MAX_RECORD_LENGTH);
+            if (value == null) return null;
+            line++;
+        } while (value.isBlank());
+        int start = line;
+        if (value.length() > MAX_RECORD_LENGTH)
+            return new Record(start, List.of(), "Row is too long");
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int length = value.length();
+        int i = 0;
+        while (true) {
+            if (i == value.length()) {
+                if (!quoted) {
+                    fields.add(field.toString());
+                    return new Record(start, fields, null);
+                }
+                value = readLine(MAX_RECORD_LENGTH - length);
+                if (value == null)
+                    return new Record(start, fields, "Unterminated quoted field");
+                line++;
+                length += value.length();
+                if (length > MAX_RECORD_LENGTH)
+                    return new Record(start, fields, "Row is too long");
+                field.append('\n');
+                i = 0;
+                continue;
+            }
+            char c = value.charAt(i++);
+            if (quoted) {
+                if (c != '"')
+                    field.append(c);
+                else if (i < value.length() && value.charAt(i) == '"') {
+                    field.append('"');
+                    i++;
+                } else
+                    quoted = false;
+            } else if (c == '"')
+                quoted = true;
+            else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else
+                field.append(c);
+        }
+    }
+
+    /**
+     * This method reads the next line, ended by a line feed, a carriage return or both.
+     * Only the first characters of the line are kept, one more than the limit, so a longer line can be detected;
+     * the rest of the line is read and discarded.
+     *
+     * @param limit the maximum length of the line.
+     * @return the line, longer than the limit if it was cut, or null at the end of the file.
+     * @throws IOException if the file cannot be read.
+     */
+    private String readLine(int limit) throws IOException {
+        StringBuilder builder = new StringBuilder();
+        boolean empty = true;
+        int c;
+        while ((c = reader.read()) != -1) {
+            empty = false;
+            if (c == '\n') break;
+            if (c == '\r') {
+                reader.mark(1);
+                if (reader.read() != '\n')
+                    reader.reset();
+                break;
+            }
+            if (builder.length() <= limit)
+                builder.append((char) c);
+        }
+        return empty ? null : builder.toString();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * A row of the file.
+     *
+     * @param line   the line where the row starts.
+     * @param values the values of the row, by column name.
+     * @param error  the reason the row cannot be read, or null.
+     */
+    record Row(int line, Map<String, Object> values, String error) {
+    }
+
+    private record Record(int line, List<String> fields, String error) {
+    }
+}
@@ -0,0 +1,304 @@
+package org.example.schoolmanagementsystemspring.admin.service;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.schoolmanagementsystemspring.admin.dto.ImportEvent;
+import org.example.schoolmanagementsystemspring.admin.dto.ImportFormat;
+import org.example.schoolmanagementsystemspring.admin.dto.RequestUser;
+import org.example.schoolmanagementsystemspring.admin.mapper.UserMapper;
+import org.example.schoolmanagementsystemspring.authentication.service.AuthenticationService;
+import org.example.schoolmanagementsystemspring.authentication.service.PasswordHashService;
+import org.example.schoolmanagementsystemspring.parent.dto.RequestParent;
+import org.example.schoolmanagementsystemspring.parent.entity.Parent;
+import org.example.schoolmanagementsystemspring.school.entity.School;
+import org.example.schoolmanagementsystemspring.school.repository.SchoolRepository;
+import org.example.schoolmanagementsystemspring.student.entity.Student;
+import org.example.schoolmanagementsystemspring.student.mappers.StudentMapper;
+import org.example.schoolmanagementsystemspring.student.service.RequestStudent;
+import org.example.schoolmanagementsystemspring.teacher.dto.RequestTeacher;
+import org.example.schoolmanagementsystemspring.teacher.entity.Teacher;
+import org.example.schoolmanagementsystemspring.teacher.mappers.TeacherMapper;
+import org.example.schoolmanagementsystemspring.user.entity.Role;
+import org.example.schoolmanagementsystemspring.user.entity.User;
+import org.example.schoolmanagementsystemspring.user.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The UserImportService class registers many users from a CSV or NDJSON file.
+ * The file is read row by row and processed in batches, so it is never held in memory.
+ * Each row has a "role" column and the columns of the register request of that role
+ * (RequestUser for admins, RequestStudent, RequestTeacher or RequestParent), and it is validated like that request.
+ * For each batch, the existing emails and the schools are loaded with one query each,
+ * and the users, their activation codes and their confirmation emails are saved in one transaction with batched inserts.
+ * Rows that cannot be imported are reported with their line and the reason, and the import goes on.
+ * If a batch fails to be saved, all its rows are reported as failed.
+ *
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserImportService {
+
+    @Value("${users.import.batch-size}")
+    private int batchSize;
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final UserRepository userRepository;
+    private final SchoolRepository schoolRepository;
+    private final UserMapper userMapper;
+    private final StudentMapper studentMapper;
+    private final TeacherMapper teacherMapper;
+    private final PasswordHashService passwordHashService;
+    private final AuthenticationService authenticationService;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+
+    /**
+     * The importUsers method imports the users of a file.
+     * The listener receives an error event for each row that was not imported,
+     * a progress event after each batch and a summary event at the end.
+     *
+     * @param format   the format of the file.
+     * @param input    the content of the file.
+     * @param listener the listener of the import events.
+     * @return the summary of the import.
+     * @throws IOException if the file cannot be read or the listener fails.
+     */
+    public ImportEvent importUsers(ImportFormat format, InputStream input, ImportListener listener) throws IOException {
+        Progress progress = new Progress();
+        try (ImportRowReader reader = new ImportRowReader(format, input, objectMapper)) {
+            List<ImportRowReader.Row> batch = new ArrayList<>(batchSize);
+            ImportRowReader.Row row;
+            while ((row = reader.next()) != null) {
+                batch.add(row);
+                if (batch.size() == batchSize) {
+                    importBatch(batch, progress, listener);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty())
+                importBatch(batch, progress, listener);
+        }
+        ImportEvent summary = ImportEvent.summary(progress.processed, progress.imported, progress.failed);
+        listener.accept(summary);
+        log.info("User import finished: {} rows, {} imported, {} failed", progress.processed, progress.imported, progress.failed);
+        return summary;
+    }
+
+    /**
+     * This method imports a batch of rows.
+     *
+     * @param rows     the rows of the batch.
+     * @param progress the progress of the import, updated with the batch.
+     * @param listener the listener of the import events.
+     * @throws IOException if the listener fails.
+     */
+    private void importBatch(List<ImportRowReader.Row> rows, Progress progress, ImportListener listener) throws IOException {
+        List<ImportEvent> errors = new ArrayList<>();
+        Map<String, Candidate> candidates = new LinkedHashMap<>();
+        for (ImportRowReader.Row row : rows) {
+            if (row.error() != null) {
+                errors.add(ImportEvent.error(row.line(), null, row.error()));
+                continue;
+            }
+            try {
+                Candidate candidate = toCandidate(row);
+                if (candidates.putIfAbsent(candidate.user().getEmail(), candidate) != null)
+                    errors.add(ImportEvent.error(row.line(), candidate.user().getEmail(), "Duplicate email in the file"));
+            } catch (IllegalArgumentException e) {
+                errors.add(ImportEvent.error(row.line(), Objects.toString(row.values().get("email"), null), e.getMessage()));
+            }
+        }
+        List<Candidate> accepted = accept(candidates, errors);
+        if (!accepted.isEmpty()) {
+            List<User> users = accepted.stream().map(Candidate::user).collect(Collectors.toList());
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    userRepository.saveAll(users);
+                    authenticationService.generateActivationCodes(users);
+                    entityManager.flush();
+                    entityManager.clear();
+                });
+                progress.imported += users.size();
+            } catch (RuntimeException e) {
+                log.error("User import batch of {} users failed: {}", users.size(), e.getMessage());
+                accepted.forEach(candidate -> errors.add(ImportEvent.error(candidate.line(), candidate.user().getEmail(), "Batch failed: " + e.getMessage())));
+            }
+        }
+        errors.sort(Comparator.comparing(ImportEvent::line));
+        for (ImportEvent error : errors)
+            listener.accept(error);
+        progress.processed += rows.size();
+        progress.failed += errors.size();
+        listener.accept(ImportEvent.progress(progress.processed, progress.imported, progress.failed));
+    }
+
+    /**
+     * This method keeps the candidates whose email is not registered and whose school exists,
+     * checking the emails and loading the schools with one query each,
+     * and hashes their passwords in parallel on the hash executor.
+     *
+     * @param candidates the valid rows of the batch, by email.
+     * @param errors     the errors of the batch, where the rejected candidates are added.
+     * @return the candidates that can be saved.
+     */
+    private List<Candidate> accept(Map<String, Candidate> candidates, List<ImportEvent> errors) {
+        if (candidates.isEmpty()) return List.of();
+        Set<String> existing = userRepository.findExistingEmails(candidates.keySet());
+        Set<Integer> schoolIds = candidates
+                .values()
+                .stream()
+                .map(Candidate::schoolId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Integer, School> schools = new HashMap<>();
+        if (!schoolIds.isEmpty())
+            schoolRepository.findAllById(schoolIds).forEach(school -> schools.put(school.getId(), school));
+        List<Candidate> accepted = new ArrayList<>(candidates.size());
+        for (Candidate candidate : candidates.values()) {
+            User user = candidate.user();
+            if (existing.contains(user.getEmail())) {
+                errors.add(ImportEvent.error(candidate.line(), user.getEmail(), "User already exists"));
+                continue;
+            }
+            if (candidate.schoolId() != null) {
+                School school = schools.get(candidate.schoolId());
+                if (school == null) {
+                    errors.add(ImportEvent.error(candidate.line(), user.getEmail(), "School not found"));
+                    continue;
+                }
+                if (user instanceof Student student) student.setSchool(school);
+                if (user instanceof Teacher teacher) teacher.setSchool(school);
+            }
+            accepted.add(candidate);
+        }
+        List<String> passwords = passwordHashService.encodeAll(accepted.stream().map(candidate -> candidate.user().getPassword()).toList());
+        for (int i = 0; i < accepted.size(); i++)
+            accepted.get(i).user().setPassword(passwords.get(i));
+        return accepted;
+    }
+
+    /**
+     * This method converts a row into the register request of its role, validates it and maps it to a new user.
+     *
+     * @param row the row to convert.
+     * @return the user of the row, not yet saved, and the ID of its school.
+     * @throws IllegalArgumentException if the row is not valid.
+     */
+    private Candidate toCandidate(ImportRowReader.Row row) {
+        Role role = toRole(row.values().get("role"));
+        return switch (role) {
+            case ADMIN -> {
+                RequestUser request = convert(row, RequestUser.class);
+                yield new Candidate(row.line(), userMapper.apply(request), null);
+            }
+            case STUDENT -> {
+                RequestStudent request = convert(row, RequestStudent.class);
+                yield new Candidate(row.line(), studentMapper.apply(request), request.schoolID());
+            }
+            case TEACHER -> {
+                RequestTeacher request = convert(row, RequestTeacher.class);
+                yield new Candidate(row.line(), teacherMapper.apply(request), request.schoolID());
+            }
+            case PARENT -> {
+                RequestParent request = convert(row, RequestParent.class);
+                yield new Candidate(row.line(), toParent(request), null);
+            }
+        };
+    }
+
+    private Role toRole(Object value) {
+        if (value == null)
+            throw new IllegalArgumentException("Role is required");
+        try {
+            return Role.valueOf(value.toString().trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown role: " + value);
+        }
+    }
+
+    /**
+     * This method converts the values of a row into a request and validates it.
+     *
+     * @param row  the row to convert.
+     * @param type the type of the request.
+     * @return the valid request.
+     * @throws IllegalArgumentException if a value cannot be converted or the request is not valid.
+     */
+    private <T> T convert(ImportRowReader.Row row, Class<T> type) {
+        T request;
+        try {
+            request = objectMapper.convertValue(row.values(), type);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(e.getCause() instanceof JsonMappingException cause ? cause.getOriginalMessage() : e.getMessage());
+        }
+        Set<ConstraintViolation<T>> violations = validator.validate(request);
+        if (!violations.isEmpty())
+            throw new IllegalArgumentException(violations
+                    .stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        return request;
+    }
+
+    private Parent toParent(RequestParent request) {
+        return Parent
+                .builder()
+                .firstName(request.firstName())
+                .lastName(request.lastName())
+                .email(request.email())
+                .password(request.password())
+                .role(Role.PARENT)
+                .description(request.description())
+                .phoneNumber(request.phoneNumber())
+                .type(request.type())
+                .occupation(request.occupation())
+                .isEnabled(false)
+                .build();
+    }
+
+    /**
+     * The ImportListener interface receives the events of an import, as they happen.
+     */
+    @FunctionalInterface
+    public interface ImportListener {
+
+        void accept(ImportEvent event) throws IOException;
+    }
+
+    private record Candidate(int line, User user, Integer schoolId) {
+    }
+
+    private static class Progress {
+
+        private int processed;
+
+        private int imported;
+
+        private int failed;
+    }
+}
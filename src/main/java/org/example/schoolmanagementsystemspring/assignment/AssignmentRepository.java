@@ -1,5 +1,6 @@
 package org.example.schoolmanagementsystemspring.assignment;
 
+import org.example.schoolmanagementsystemspring.student.dto.AssignmentResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -23,8 +24,17 @@ public interface AssignmentRepository extends JpaRepository<Assignment, Assignme
     @Query("select a from Assignment a where a.id.courseCode = ?1 and a.id.deliverAssignment = ?2 and a.enabled = true")
     Page<Assignment> findById_CourseCodeAndId_DeliverAssignmentAndEnabledTrue(String courseCode, LocalDateTime deliverAssignment, Pageable pageable);
 
-    @Query("select a from Assignment a where a.id.studentID = ?1")
-    Page<Assignment> findById_StudentID(@NonNull Integer studentID, Pageable pageable);
+    @Query(
+            value = """
+                    select new org.example.schoolmanagementsystemspring.student.dto.AssignmentResponse(
+                        a.id.studentID, a.id.courseCode, a.id.deliverAssignment, a.title, a.description,
+                        a.submissionType, a.assignmentType, a.grade, a.feedback
+                    )
+                    from Assignment a
+                    where a.id.studentID = ?1""",
+            countQuery = "select count(a) from Assignment a where a.id.studentID = ?1"
+    )
+    Page<AssignmentResponse> findById_StudentID(@NonNull Integer studentID, Pageable pageable);
 
     @Query("select a from Assignment a where a.id.studentID = ?1 and a.id.deliverAssignment > ?2")
     List<Assignment> findById_StudentIDAndId_DeliverAssignmentAfter(@NonNull Integer studentID, @NonNull LocalDateTime deliverAssignment);
@@ -9,9 +9,12 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.schoolmanagementsystemspring.authentication.dto.AuthenticationRequestDto;
 import org.example.schoolmanagementsystemspring.authentication.dto.AuthenticationResponse;
+import org.example.schoolmanagementsystemspring.authentication.entity.RateLimitRule;
 import org.example.schoolmanagementsystemspring.authentication.exception.InvalidTokenException;
 import org.example.schoolmanagementsystemspring.authentication.exception.TokenNotFoundException;
+import org.example.schoolmanagementsystemspring.authentication.exception.TooManyRequestsException;
 import org.example.schoolmanagementsystemspring.authentication.service.AuthenticationService;
+import org.example.schoolmanagementsystemspring.authentication.service.RateLimiterService;
 import org.example.schoolmanagementsystemspring.user.exception.UserNotFoundException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
@@ -40,20 +43,28 @@ public class AuthenticationController {
      */
     private final AuthenticationService service;
 
+    /**
+     * The RateLimiterService limits the requests by email, before the password is verified or the email is sent.
+     */
+    private final RateLimiterService rateLimiterService;
+
     /**
      * The authenticate method handles POST requests to /api/v1/auth/authenticate.
      * It authenticates a user with the details provided in the request body.
      * The request body must be a valid AuthenticationRequestDto object.
      * If the user is not found, it throws a UserNotFoundException.
+     * If there were too many attempts for the email, it throws a TooManyRequestsException.
      *
      * @param request a valid AuthenticationRequestDto object containing the details of the user to be authenticated.
      * @return an AuthenticationResponse object containing the authentication details.
-     * @throws UserNotFoundException if the user is not found.
+     * @throws UserNotFoundException    if the user is not found.
+     * @throws TooManyRequestsException if there were too many attempts for the email.
      */
     @Operation(summary = "Authenticate a user", description = "Authenticate a user in the system")
     @PostMapping("/authenticate")
-    public AuthenticationResponse authenticate(@Valid @RequestBody AuthenticationRequestDto request) throws UserNotFoundException {
+    public AuthenticationResponse authenticate(@Valid @RequestBody AuthenticationRequestDto request) throws UserNotFoundException, TooManyRequestsException {
         log.info("Authenticating user: {}", request.email());
+        rateLimiterService.check(RateLimitRule.AUTHENTICATE_EMAIL, request.email());
         return service.authenticate(request);
     }
 
@@ -97,15 +108,18 @@ public class AuthenticationController {
      * The generateActivationCode method handles POST requests to /api/v1/auth/generate-activation-code.
      * It generates an activation code for the user with the provided email.
      * If the user is not found, it throws a UserNotFoundException.
+     * If there were too many codes requested for the email, it throws a TooManyRequestsException.
      *
      * @param email the email of the user.
-     * @throws UserNotFoundException if the user is not found.
+     * @throws UserNotFoundException    if the user is not found.
+     * @throws TooManyRequestsException if there were too many codes requested for the email.
      */
     @Operation(summary = "Generate activation code", description = "Generate an activation code for a user in the system.")
     @PostMapping("/generate-activation-code")
     @ResponseStatus(HttpStatus.ACCEPTED)
-    public void generateActivationCode(@RequestParam String email) throws UserNotFoundException {
+    public void generateActivationCode(@RequestParam String email) throws UserNotFoundException, TooManyRequestsException {
         log.info("Generating activation code ...");
+        rateLimiterService.check(RateLimitRule.ACTIVATION_CODE_EMAIL, email);
         service.generateActivationCode(email);
     }
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package org.example.schoolmanagementsystemspring.authentication.dto;
+
+import lombok.Builder;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The TokenClaims record holds the claims of a JWT that has already been verified and parsed.
+ * It is produced once per token by the JwtService, so the signature is never checked twice for the same request.
+ *
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+@Builder
+public record TokenClaims(
+        String subject,
+        Integer userId,
+        Integer tokenVersion,
+        Date expiration,
+        List<String> authorities,
+        Set<String> audience
+) {
+
+    /**
+     * This method checks if the token is not expired at the current time.
+     *
+     * @return a boolean indicating whether the token is not expired.
+     */
+    public boolean isNonExpired() {
+        return expiration != null && expiration.after(new Date());
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.schoolmanagementsystemspring.authentication.entity;
+
+/**
+ * The AuthenticationMode enum defines how the bearer tokens are checked on each request.
+ * TOKEN_TABLE checks every token against the tokens table.
+ * TOKEN_VERSION only checks the signature of the token and the token version of its user, which is kept in memory.
+ *
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+public enum AuthenticationMode {
+    TOKEN_TABLE,
+    TOKEN_VERSION
+}
@@ -0,0 +1,21 @@
+package org.example.schoolmanagementsystemspring.authentication.entity;
+
+/**
+ * The RateLimitRule enum represents the limits applied to the unauthenticated authentication endpoints.
+ * Each endpoint is limited by the IP address of the client and by the email of the request,
+ * so neither a single client nor a flood of clients targeting one account can exhaust the limit of the other.
+ *
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+public enum RateLimitRule {
+
+    AUTHENTICATE_IP,
+
+    AUTHENTICATE_EMAIL,
+
+    ACTIVATION_CODE_IP,
+
+    ACTIVATION_CODE_EMAIL
+}
@@ -8,9 +8,19 @@ import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 
 /**
+ * The Token entity stores the access tokens and activation codes of the users.
+ * Tokens are looked up by the SHA-256 digest of their value, kept in a fixed-width column with a unique index,
+ * instead of comparing the full value of the token.
+ * The raw value is only kept in memory, to compute the digest and to send activation codes, and is not stored.
+ * The raw column is nullable and only holds the value of the tokens stored before the digest column existed,
+ * until the TokenHashMigrationService computes their digest.
+ *
  * @author FFreitas
  * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
  * <a href="https://github.com/FFreitas997/">Github</a>
@@ -21,7 +31,7 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "tokens")
+@Table(name = "tokens", indexes = @Index(name = "tokens_token_hash_idx", columnList = "token_hash", unique = true))
 @EntityListeners(AuditingEntityListener.class)
 public class Token {
 
@@ -29,9 +39,15 @@ public class Token {
     @GeneratedValue
     private Integer id;
 
-    @Column(name = "token", nullable = false, length = 1024)
+    @Transient
     private String value;
 
+    @Column(name = "token", length = 1024)
+    private String legacyValue;
+
+    @Column(name = "token_hash", length = 32)
+    private byte[] hash;
+
     @Column(name = "type", nullable = false)
     @Enumerated(EnumType.STRING)
     private TokenType type = TokenType.BEARER;
@@ -51,4 +67,30 @@ public class Token {
     @JoinColumn(name = "user_id")
     @JsonManagedReference
     private User user;
+
+    /**
+     * This method sets the digest of the token value before the token is inserted or updated.
+     */
+    @PrePersist
+    @PreUpdate
+    public void computeHash() {
+        if (value != null)
+            hash = hash(value);
+    }
+
+    /**
+     * This method computes the SHA-256 digest of a token value.
+     *
+     * @param value the raw value of the token.
+     * @return the 32 bytes digest of the value.
+     */
+    public static byte[] hash(@NonNull String value) {
+        try {
+            return MessageDigest
+                    .getInstance("SHA-256")
+                    .digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
 }
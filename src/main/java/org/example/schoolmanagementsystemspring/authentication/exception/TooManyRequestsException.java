@@ -0,0 +1,19 @@
+package org.example.schoolmanagementsystemspring.authentication.exception;
+
+import lombok.Getter;
+
+/**
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+@Getter
+public class TooManyRequestsException extends Exception {
+
+    private final long retryAfter;
+
+    public TooManyRequestsException(String message, long retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
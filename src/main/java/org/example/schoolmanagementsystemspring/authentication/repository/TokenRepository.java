@@ -2,6 +2,7 @@ package org.example.schoolmanagementsystemspring.authentication.repository;
 
 import org.example.schoolmanagementsystemspring.authentication.entity.Token;
 import org.example.schoolmanagementsystemspring.authentication.entity.TokenType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -9,6 +10,8 @@ import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,7 +20,8 @@ import java.util.Optional;
  * It provides methods to perform CRUD operations and custom queries on the Token table in the database.
  * It extends JpaRepository, which provides JPA related methods such as save, delete, and find.
  * It is annotated with @Repository to indicate that it's a bean and to translate any platform-specific exceptions into Spring's DataAccessException hierarchy.
- * It includes methods to find a token by its value, find a valid token by its value, find valid tokens by user id, delete expired tokens, and find a token by its value and type.
+ * It includes methods to find a token by its value, find a valid token by its value, find valid tokens by user id, expire the valid tokens of a user, find and delete purgeable tokens in chunks, and find a token by its value and type.
+ * Lookups by value are resolved through the SHA-256 digest of the value, so they probe the unique digest index.
  *
  * @author FFreitas
  * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
@@ -26,14 +30,33 @@ import java.util.Optional;
 @Repository
 public interface TokenRepository extends JpaRepository<Token, Integer> {
 
+    /**
+     * Find a token by the digest of its value.
+     *
+     * @param hash the SHA-256 digest of the value of the token.
+     * @return an Optional of Token if a token with the given digest exists, empty Optional otherwise.
+     */
+    @Query("select token from Token token where token.hash = :hash")
+    Optional<Token> findByHash(byte[] hash);
+
+    /**
+     * Find a valid token by the digest of its value.
+     *
+     * @param hash the SHA-256 digest of the value of the token.
+     * @return an Optional of Token if a valid token with the given digest exists, empty Optional otherwise.
+     */
+    @Query("select token from Token token where token.hash = :hash and token.expired = false")
+    Optional<Token> findValidByHash(byte[] hash);
+
     /**
      * Find a token by its value.
      *
      * @param token the value of the token.
      * @return an Optional of Token if a token with the given value exists, empty Optional otherwise.
      */
-    @Query("select token from Token token where token.value = :token")
-    Optional<Token> findByToken(String token);
+    default Optional<Token> findByToken(@NonNull String token) {
+        return findByHash(Token.hash(token));
+    }
 
     /**
      * Find a valid token by its value.
@@ -41,8 +64,9 @@ public interface TokenRepository extends JpaRepository<Token, Integer> {
      * @param token the value of the token.
      * @return an Optional of Token if a valid token with the given value exists, empty Optional otherwise.
      */
-    @Query("select token from Token token where token.value = :token and token.expired = false")
-    Optional<Token> findByTokenValid(String token);
+    default Optional<Token> findByTokenValid(@NonNull String token) {
+        return findValidByHash(Token.hash(token));
+    }
 
     /**
      * Find valid tokens by user id.
@@ -54,11 +78,63 @@ public interface TokenRepository extends JpaRepository<Token, Integer> {
     List<Token> findValidTokensByUserId(Integer id);
 
     /**
-     * Delete expired tokens.
+     * Expire all valid tokens of a user with a single update statement.
+     * Pending changes are flushed before the update, and the persistence context is not cleared,
+     * so Token entities already loaded in the same transaction keep their previous expired flag.
+     *
+     * @param id the id of the user.
+     * @return the number of tokens that were expired.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update Token t set t.expired = true where t.user.id = ?1 and t.expired = false")
+    int expireValidTokensByUserId(@NonNull Integer id);
+
+    /**
+     * Find the ids of the tokens that can be purged, in ascending order, starting after the given id.
+     * A token can be purged if it was marked as expired, if it is a bearer token created before the bearer limit,
+     * or if it is an activation code created before the activation code limit.
+     *
+     * @param afterId     the last id of the previous chunk.
+     * @param bearerLimit the creation date before which bearer tokens are expired.
+     * @param codeLimit   the creation date before which activation codes are expired.
+     * @param pageable    the size of the chunk.
+     * @return a List with the ids of the next chunk of purgeable tokens.
+     */
+    @Query("""
+            select t.id from Token t
+            where t.id > :afterId
+            and (t.expired = true
+                or (t.type = org.example.schoolmanagementsystemspring.authentication.entity.TokenType.BEARER and t.createdAt < :bearerLimit)
+                or (t.type = org.example.schoolmanagementsystemspring.authentication.entity.TokenType.ACTIVATION_CODE and t.createdAt < :codeLimit))
+            order by t.id
+            """)
+    List<Integer> findPurgeableIds(Integer afterId, LocalDateTime bearerLimit, LocalDateTime codeLimit, Pageable pageable);
+
+    /**
+     * Count the tokens that can be purged.
+     *
+     * @param bearerLimit the creation date before which bearer tokens are expired.
+     * @param codeLimit   the creation date before which activation codes are expired.
+     * @return the number of purgeable tokens.
+     */
+    @Query("""
+            select count(t) from Token t
+            where t.expired = true
+                or (t.type = org.example.schoolmanagementsystemspring.authentication.entity.TokenType.BEARER and t.createdAt < :bearerLimit)
+                or (t.type = org.example.schoolmanagementsystemspring.authentication.entity.TokenType.ACTIVATION_CODE and t.createdAt < :codeLimit)
+            """)
+    long countPurgeable(LocalDateTime bearerLimit, LocalDateTime codeLimit);
+
+    /**
+     * Delete the tokens with the given ids with a single statement, in its own transaction.
+     *
+     * @param ids the ids of the tokens.
+     * @return the number of deleted tokens.
      */
     @Modifying
     @Transactional
-    void deleteByExpiredTrue();
+    @Query("delete from Token t where t.id in ?1")
+    int deleteByIds(List<Integer> ids);
 
     /**
      * Find a token by its value and type.
@@ -67,7 +143,63 @@ public interface TokenRepository extends JpaRepository<Token, Integer> {
      * @param type  the type of the token.
      * @return an Optional of Token if a token with the given value and type exists, empty Optional otherwise.
      */
-    @Query("select t from Token t where t.value = ?1 and t.type = ?2")
-    Optional<Token> findByValueAndType(@NonNull String value, @NonNull TokenType type);
+    default Optional<Token> findByValueAndType(@NonNull String value, @NonNull TokenType type) {
+        return findByHashAndType(Token.hash(value), type);
+    }
+
+    /**
+     * Find a token by the digest of its value and its type.
+     *
+     * @param hash the SHA-256 digest of the value of the token.
+     * @param type the type of the token.
+     * @return an Optional of Token if a token with the given digest and type exists, empty Optional otherwise.
+     */
+    @Query("select t from Token t where t.hash = ?1 and t.type = ?2")
+    Optional<Token> findByHashAndType(byte[] hash, @NonNull TokenType type);
+
+    /**
+     * Check if a token with the given value exists.
+     *
+     * @param value the value of the token.
+     * @return a boolean indicating whether a token with the given value exists.
+     */
+    default boolean existsByToken(@NonNull String value) {
+        return existsByHash(Token.hash(value));
+    }
+
+    /**
+     * Check if a token with the given digest exists.
+     *
+     * @param hash the SHA-256 digest of the value of the token.
+     * @return a boolean indicating whether a token with the given digest exists.
+     */
+    boolean existsByHash(byte[] hash);
+
+    /**
+     * Find which of the given digests are already stored, with a single query.
+     *
+     * @param hashes the SHA-256 digests to check.
+     * @return the digests that are already stored.
+     */
+    @Query("select t.hash from Token t where t.hash in ?1")
+    List<byte[]> findExistingHashes(Collection<byte[]> hashes);
+
+    /**
+     * Find the next chunk of tokens that were stored before the digest column existed.
+     *
+     * @param pageable the size of the chunk.
+     * @return a List of Token without a digest.
+     */
+    @Query("select t from Token t where t.hash is null order by t.id")
+    List<Token> findWithoutHash(Pageable pageable);
+
+    /**
+     * Drop the not null constraint of the raw column, which schemas created before the digest column still have.
+     * New tokens no longer store their raw value, and the statement does nothing if the column is already nullable.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "alter table tokens alter column token drop not null", nativeQuery = true)
+    void dropLegacyValueNotNull();
 
 }
\ No newline at end of file
@@ -1,31 +1,47 @@
 package org.example.schoolmanagementsystemspring.authentication.service;
 
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.example.schoolmanagementsystemspring.authentication.entity.Token;
+import org.example.schoolmanagementsystemspring.authentication.dto.TokenClaims;
+import org.example.schoolmanagementsystemspring.authentication.entity.AuthenticationMode;
 import org.example.schoolmanagementsystemspring.authentication.entity.TokenType;
 import org.example.schoolmanagementsystemspring.authentication.repository.TokenRepository;
+import org.example.schoolmanagementsystemspring.user.entity.Role;
 import org.example.schoolmanagementsystemspring.user.entity.User;
 import org.example.schoolmanagementsystemspring.user.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Service;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import static org.springframework.http.HttpHeaders.AUTHORIZATION;
 
 /**
  * The AuthenticationFilterService class is a filter that intercepts each request once and performs authentication.
  * It extends OncePerRequestFilter, which ensures a single execution per request dispatch.
- * It uses the JwtService, UserRepository, and TokenRepository to perform its operations.
+ * It uses the JwtService, UserRepository, TokenRepository, and TokenCacheService to perform its operations.
+ * Tokens already validated against the database are served from the TokenCacheService, so a warm request needs no database access.
+ * On a cache miss, the token is checked in stages, from the cheapest to the most expensive:
+ * the signature and expiration of the token, then the token table, then the user.
+ * A token that fails a stage never reaches the next one, so invalid or expired tokens never touch the database.
+ * In the token version mode, the token table is not used: the principal is built from the claims
+ * and the token is valid while its version matches the current version of its user (see TokenVersionService).
+ * The time spent in each stage is recorded in the "authentication.filter" timer, tagged by stage and outcome.
  * It checks the Authorization header of the request, and if it starts with "Bearer", it attempts to authenticate the request.
  * If the request is already authenticated, or if the Authorization header is missing or does not start with "Bearer", it forwards the request without modifying it.
  *
@@ -41,14 +57,42 @@ public class AuthenticationFilterService extends OncePerRequestFilter {
     private final JwtService jwtService;
     private final UserRepository userRepository;
     private final TokenRepository tokenRepository;
+    private final TokenCacheService tokenCacheService;
+    private final TokenVersionService tokenVersionService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${spring.application.security.jwt.mode}")
+    private AuthenticationMode mode;
+
+    private final Map<Stage, Map<Outcome, Timer>> timers = new EnumMap<>(Stage.class);
+
+    /**
+     * The init method registers one timer per stage and outcome, so recording a stage does not allocate.
+     */
+    @PostConstruct
+    public void init() {
+        for (Stage stage : Stage.values()) {
+            Map<Outcome, Timer> outcomes = new EnumMap<>(Outcome.class);
+            for (Outcome outcome : Outcome.values()) {
+                outcomes.put(outcome, Timer
+                        .builder("authentication.filter")
+                        .description("Time spent in each stage of the authentication filter")
+                        .tag("stage", stage.name().toLowerCase())
+                        .tag("outcome", outcome.name().toLowerCase())
+                        .register(meterRegistry));
+            }
+            timers.put(stage, outcomes);
+        }
+    }
 
     /**
      * The doFilterInternal method is overridden to perform the authentication.
      * It first checks the Authorization header of the request.
      * If the header is missing or does not start with "Bearer", it forwards the request without modifying it.
      * If the request is already authenticated, it also forwards the request without modifying it.
-     * Otherwise, it retrieves the token from the header, gets the subject from the token, retrieves the user and the token entity from the repositories, and checks if the token is valid.
-     * If the token is valid, it creates a new UsernamePasswordAuthenticationToken, sets its details, and sets it in the SecurityContext.
+     * Otherwise, it retrieves the token from the header and looks it up in the token cache.
+     * On a cache miss, it authenticates the token stage by stage (see authenticate).
+     * If the token is valid, it creates a new UsernamePasswordAuthenticationToken and sets it in the SecurityContext.
      * Finally, it forwards the request.
      *
      * @param req   the HttpServletRequest object containing the details of the request.
@@ -59,32 +103,117 @@ public class AuthenticationFilterService extends OncePerRequestFilter {
      */
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest req, @NonNull HttpServletResponse res, @NonNull FilterChain chain) throws ServletException, IOException {
-        log.info("Filtering request to authenticate ...");
         String authHeader = req.getHeader(AUTHORIZATION);
         if (authHeader == null || !authHeader.startsWith(TokenType.BEARER.getValue())) {
-            log.warn("Request Filter: Request without Authorization header ...");
             chain.doFilter(req, res);
             return;
         }
         if (SecurityContextHolder.getContext().getAuthentication() != null) {
-            log.warn("Request already authenticated ...");
+            log.debug("Request already authenticated ...");
             chain.doFilter(req, res);
             return;
         }
-        String token = authHeader.substring(7);
-        String subject = jwtService.getSubject(token);
-        User user = userRepository
-                .findByEmailValid(subject)
-                .orElse(null);
-        Token tokenEntity = tokenRepository
-                .findByTokenValid(token)
-                .orElse(null);
-        if (jwtService.isTokenValid(tokenEntity, user)) {
-            assert user != null;
+        User user = authenticate(authHeader.substring(7));
+        if (user != null) {
             UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
-            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(req));
             SecurityContextHolder.getContext().setAuthentication(authToken);
         }
         chain.doFilter(req, res);
     }
-}
\ No newline at end of file
+
+    /**
+     * This method authenticates a bearer token.
+     * In the token table mode, the token is served from the cache when possible,
+     * otherwise its claims are verified, the token is looked up in the token table and only then the user is retrieved.
+     * In the token version mode, the claims are verified and the version of the token is checked.
+     *
+     * @param token the raw bearer token.
+     * @return the user that owns the token if the token is valid, null otherwise.
+     */
+    private User authenticate(String token) {
+        long start = System.nanoTime();
+        if (mode == AuthenticationMode.TOKEN_TABLE) {
+            User cached = tokenCacheService.getUser(token).orElse(null);
+            start = record(Stage.CACHE, cached != null ? Outcome.VALID : Outcome.MISS, start);
+            if (cached != null) return cached;
+        }
+        long loadedAt = System.nanoTime();
+        TokenClaims claims = verify(token);
+        start = record(Stage.CLAIMS, claims == null ? Outcome.INVALID : Outcome.VALID, start);
+        if (claims == null) return null;
+        if (mode == AuthenticationMode.TOKEN_VERSION) {
+            User user = loadVersionedUser(claims);
+            record(Stage.VERSION, user == null ? Outcome.INVALID : Outcome.VALID, start);
+            return user;
+        }
+        boolean stored = tokenRepository.findByTokenValid(token).isPresent();
+        start = record(Stage.TOKEN, stored ? Outcome.VALID : Outcome.INVALID, start);
+        if (!stored) return null;
+        User user = userRepository
+                .findByEmailValid(claims.subject())
+                .filter(found -> jwtService.isTokenValid(claims, found))
+                .orElse(null);
+        record(Stage.USER, user == null ? Outcome.INVALID : Outcome.VALID, start);
+        if (user != null)
+            tokenCacheService.put(token, user, claims.expiration(), loadedAt);
+        return user;
+    }
+
+    /**
+     * This method verifies the signature and the expiration of a token and parses its claims.
+     *
+     * @param token the raw bearer token.
+     * @return the claims of the token if the token is valid and not expired, null otherwise.
+     */
+    private TokenClaims verify(String token) {
+        try {
+            TokenClaims claims = jwtService.parseClaims(token);
+            return claims.subject() != null && claims.isNonExpired() ? claims : null;
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Request Filter: Invalid token ... {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * This method validates verified claims in the token version mode.
+     * The token is valid if its version is the current version of its user.
+     * The principal is built from the claims, so neither the users table nor the token table is read.
+     * Refresh tokens do not carry a version, so they are never accepted as access tokens.
+     *
+     * @param claims the verified claims of the token.
+     * @return a user built from the claims of the token if the token is valid, null otherwise.
+     */
+    private User loadVersionedUser(TokenClaims claims) {
+        if (claims.audience() == null || claims.audience().isEmpty())
+            return null;
+        if (!tokenVersionService.isCurrent(claims.userId(), claims.tokenVersion()))
+            return null;
+        return User
+                .builder()
+                .id(claims.userId())
+                .email(claims.subject())
+                .role(Role.valueOf(claims.audience().iterator().next()))
+                .tokenVersion(claims.tokenVersion())
+                .isEnabled(true)
+                .build();
+    }
+
+    /**
+     * This method records the time spent in a stage.
+     *
+     * @param stage   the stage that ended.
+     * @param outcome the outcome of the stage.
+     * @param start   the System.nanoTime() value taken when the stage started.
+     * @return the System.nanoTime() value taken when the stage ended, which is the start of the next stage.
+     */
+    private long record(Stage stage, Outcome outcome, long start) {
+        long end = System.nanoTime();
+        timers.get(stage).get(outcome).record(end - start, TimeUnit.NANOSECONDS);
+        return end;
+    }
+
+    private enum Stage { CACHE, CLAIMS, VERSION, TOKEN, USER }
+
+    private enum Outcome { VALID, INVALID, MISS }
+}
@@ -6,9 +6,11 @@ import org.example.schoolmanagementsystemspring.authentication.dto.Authenticatio
 import org.example.schoolmanagementsystemspring.authentication.dto.AuthenticationResponse;
 import org.example.schoolmanagementsystemspring.authentication.exception.InvalidTokenException;
 import org.example.schoolmanagementsystemspring.authentication.exception.TokenNotFoundException;
+import org.example.schoolmanagementsystemspring.user.entity.User;
 import org.example.schoolmanagementsystemspring.user.exception.UserNotFoundException;
 
 import java.io.IOException;
+import java.util.List;
 
 /**
  * The AuthenticationService interface provides the contract for the authentication service.
@@ -63,4 +65,12 @@ public interface AuthenticationService {
      * @throws UserNotFoundException if the user is not found.
      */
     void generateActivationCode(String email) throws UserNotFoundException;
+
+    /**
+     * The generateActivationCodes method generates an activation code for each of the provided users,
+     * which must be already saved in the current transaction.
+     *
+     * @param users the users that need an activation code.
+     */
+    void generateActivationCodes(List<User> users);
 }
\ No newline at end of file
@@ -7,6 +7,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.schoolmanagementsystemspring.authentication.dto.AuthenticationRequestDto;
 import org.example.schoolmanagementsystemspring.authentication.dto.AuthenticationResponse;
+import org.example.schoolmanagementsystemspring.authentication.dto.TokenClaims;
+import org.example.schoolmanagementsystemspring.authentication.entity.AuthenticationMode;
 import org.example.schoolmanagementsystemspring.authentication.entity.Token;
 import org.example.schoolmanagementsystemspring.authentication.entity.TokenType;
 import org.example.schoolmanagementsystemspring.authentication.exception.InvalidTokenException;
@@ -24,15 +26,26 @@ import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.function.Predicate;
+import java.util.stream.IntStream;
 
 import static org.springframework.http.HttpHeaders.AUTHORIZATION;
 
@@ -40,7 +53,7 @@ import static org.springframework.http.HttpHeaders.AUTHORIZATION;
  * The AuthenticationServiceImpl class is a service that implements the AuthenticationService interface.
  * It provides methods for user authentication, token refresh, account activation, and activation code generation.
  * Each method throws specific exceptions that are handled by the controller.
- * It uses the UserRepository, TokenRepository, AuthenticationManager, JwtService, TokenAuthMapper, and EmailService to perform its operations.
+ * It uses the UserRepository, TokenRepository, AuthenticationManager, JwtService, TokenAuthMapper, TokenCacheService, and EmailService to perform its operations.
  *
  * @author FFreitas
  * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
@@ -62,6 +75,8 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     private Integer length;
     @Value("${email.code.expiration}")
     private Integer codeExpiration;
+    @Value("${spring.application.security.jwt.mode}")
+    private AuthenticationMode mode;
 
     private final UserRepository userRepository;
     private final TokenRepository tokenRepository;
@@ -69,28 +84,37 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     private final JwtService jwtService;
     private final TokenAuthMapper tokenMapper;
     private final EmailService emailService;
+    private final TokenCacheService tokenCacheService;
+    private final TokenVersionService tokenVersionService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final SecureRandom secureRandom = new SecureRandom();
 
 
     /**
      * The authenticate method authenticates a user with the details provided in the request body.
      * The request body must be a valid AuthenticationRequestDto object.
-     * If the user is not found, it throws a UserNotFoundException.
+     * The credentials are verified first, so a failed login does not sign any token nor write to the database.
+     * The user loaded by the AuthenticationManager is reused as the subject of the tokens, so it is loaded only once.
+     * The password is verified outside of any transaction, then the old tokens are expired and the new access token is saved
+     * in a single short transaction.
+     * If the credentials are not valid, the AuthenticationManager throws an AuthenticationException.
      *
      * @param requestBody a valid AuthenticationRequestDto object containing the details of the user to be authenticated.
      * @return an AuthenticationResponse object containing the authentication details.
      * @throws UserNotFoundException if the user is not found.
      */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthenticationResponse authenticate(AuthenticationRequestDto requestBody) throws UserNotFoundException {
-        User user = userRepository
-                .findByEmailValid(requestBody.email())
-                .orElseThrow(() -> new UserNotFoundException("User not found with email: " + requestBody.email()));
-        String generatedToken = jwtService.generateToken(user, Collections.emptyMap());
+        Authentication authentication = manager.authenticate(new UsernamePasswordAuthenticationToken(requestBody.email(), requestBody.password()));
+        if (!(authentication.getPrincipal() instanceof User user))
+            throw new UserNotFoundException("User not found with email: " + requestBody.email());
+        String generatedToken = transactionTemplate.execute(status -> {
+            expireAllUserTokens(user);
+            return issueAccessToken(user);
+        });
         String generatedRefreshToken = jwtService.generateRefreshToken(user);
-        expireAllUserTokens(user);
-        Token tokenMapped = tokenMapper.apply(generatedToken, user);
-        tokenRepository.save(tokenMapped);
-        manager.authenticate(new UsernamePasswordAuthenticationToken(requestBody.email(), requestBody.password()));
         return AuthenticationResponse.builder()
                 .accessToken(generatedToken)
                 .refreshToken(generatedRefreshToken)
@@ -111,19 +135,16 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             return;
         }
-        Token refreshToken = new Token();
-        refreshToken.setValue(authHeader.substring(7));
-        String username = jwtService.getSubject(refreshToken.getValue());
-        if (username != null) {
+        String refreshToken = authHeader.substring(7);
+        TokenClaims claims = jwtService.parseClaims(refreshToken);
+        if (claims.subject() != null) {
             User user = userRepository
-                    .findByEmailValid(username)
+                    .findByEmailValid(claims.subject())
                     .orElse(null);
-            if (jwtService.isTokenValid(refreshToken, user)) {
-                String accessToken = jwtService.generateToken(user, Collections.emptyMap());
+            if (jwtService.isTokenValid(claims, user)) {
                 expireAllUserTokens(user);
-                Token token = tokenMapper.apply(accessToken, user);
-                tokenRepository.save(token);
-                AuthenticationResponse authResponse = new AuthenticationResponse(accessToken, refreshToken.getValue());
+                String accessToken = issueAccessToken(user);
+                AuthenticationResponse authResponse = new AuthenticationResponse(accessToken, refreshToken);
                 new ObjectMapper().writeValue(res.getOutputStream(), authResponse);
             }
         }
@@ -170,6 +191,8 @@ public class AuthenticationServiceImpl implements AuthenticationService {
 
     /**
      * The generateActivationCode method generates an activation code for the user with the provided email.
+     * The confirmation email is queued in the email outbox in the same transaction as the code,
+     * so it is sent only if the code is saved, and it is not lost if the application stops.
      * If the user is not found, it throws a UserNotFoundException.
      *
      * @param email the email of the user.
@@ -182,25 +205,81 @@ public class AuthenticationServiceImpl implements AuthenticationService {
                 .orElseThrow(() -> new UserNotFoundException("User not found"));
         String code = generateCode(length);
         Token token = buildCode(user, code);
-        tokenRepository.save(token);
-        emailService
-                .sendEmail(buildConfirmEmail(code, user))
-                .handleAsync((res, ex) -> handleSendEmailAsync(user, ex))
-                .thenAccept(log::info);
+        token = tokenRepository.save(token);
+        emailService.enqueue(buildConfirmEmail(code, user), "confirm-email:" + token.getId());
+    }
+
+    /**
+     * The generateActivationCodes method generates the activation codes of several users at once.
+     * All the codes are generated before any of them is saved, and checked against the stored tokens with a single query;
+     * only the codes that are already stored are generated again and checked, which is rare.
+     * Then the codes and their confirmation emails are saved together, which lets Hibernate batch the inserts.
+     *
+     * @param users the users that need an activation code, already saved in the current transaction.
+     */
+    @Override
+    public void generateActivationCodes(List<User> users) {
+        if (users.isEmpty()) return;
+        String[] codes = new String[users.size()];
+        Set<String> generated = new HashSet<>();
+        List<Integer> pending = IntStream.range(0, users.size()).boxed().toList();
+        while (!pending.isEmpty()) {
+            Map<ByteBuffer, Integer> hashes = new HashMap<>();
+            for (int index : pending) {
+                do {
+                    codes[index] = randomCode(length);
+                } while (!generated.add(codes[index]));
+                hashes.put(ByteBuffer.wrap(Token.hash(codes[index])), index);
+            }
+            List<Integer> collisions = new ArrayList<>();
+            for (byte[] hash : tokenRepository.findExistingHashes(hashes.keySet().stream().map(ByteBuffer::array).toList()))
+                collisions.add(hashes.get(ByteBuffer.wrap(hash)));
+            pending = collisions;
+        }
+        List<Token> tokens = new ArrayList<>(users.size());
+        for (int i = 0; i < users.size(); i++)
+            tokens.add(buildCode(users.get(i), codes[i]));
+        tokenRepository.saveAll(tokens);
+        Map<String, Email> emails = new LinkedHashMap<>();
+        for (Token token : tokens)
+            emails.put("confirm-email:" + token.getId(), buildConfirmEmail(token.getValue(), token.getUser()));
+        emailService.enqueueAll(emails);
     }
 
     /**
      * This method expires all valid tokens of a user.
      * It first checks if the user is null, if so, it returns immediately.
-     * Otherwise, it retrieves all valid tokens of the user from the token repository and sets them as expired.
+     * In the token version mode, it increments the token version of the user.
+     * Otherwise, it expires all valid tokens of the user with a single update statement,
+     * so the cost does not grow with the number of tokens of the user,
+     * and removes the tokens of the user from the token cache.
      *
      * @param user the user whose tokens are to be expired.
      */
     private void expireAllUserTokens(User user) {
         if (user == null) return;
-        tokenRepository
-                .findValidTokensByUserId(user.getId())
-                .forEach(token -> token.setExpired(true));
+        if (mode == AuthenticationMode.TOKEN_VERSION) {
+            tokenVersionService.revoke(user);
+            return;
+        }
+        int expired = tokenRepository.expireValidTokensByUserId(user.getId());
+        tokenCacheService.invalidateUser(user.getId());
+        log.debug("Expired {} tokens of user {}", expired, user.getId());
+    }
+
+    /**
+     * This method generates a new access token for a user.
+     * In the token table mode, the token is also saved in the token repository.
+     * It must be called after the previous tokens of the user were expired.
+     *
+     * @param user the user for whom the token is generated.
+     * @return a string representing the generated access token.
+     */
+    private String issueAccessToken(User user) {
+        String accessToken = jwtService.generateToken(user, Collections.emptyMap());
+        if (mode == AuthenticationMode.TOKEN_TABLE)
+            tokenRepository.save(tokenMapper.apply(accessToken, user));
+        return accessToken;
     }
 
     /**
@@ -222,36 +301,35 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     }
 
     /**
-     * This method handles the result of sending an email asynchronously.
-     * If an exception occurred during the sending of the email, it returns a string indicating an error.
-     * Otherwise, it returns a string indicating success.
+     * This method generates a random numeric code of a specified length that is not stored yet.
+     * Since tokens are unique by the digest of their value, a new code is generated while the code is already stored.
      *
-     * @param userSaved the user to whom the email was sent.
-     * @param exception the exception that occurred during the sending of the email, if any.
-     * @return a string indicating the result of the operation.
+     * @param length the length of the code to generate.
+     * @return a string representing the generated code.
      */
-    private String handleSendEmailAsync(User userSaved, Throwable exception) {
-        return exception != null ?
-                "An error occurred while sending the email to " + userSaved.getEmail() :
-                "The email was sent successfully to " + userSaved.getEmail();
+    private String generateCode(int length) {
+        String code;
+        do {
+            code = randomCode(length);
+        } while (tokenRepository.existsByToken(code));
+        return code;
     }
 
     /**
      * This method generates a random numeric code of a specified length.
-     * It uses a SecureRandom object to generate the random numbers.
+     * It uses the SecureRandom of the service, which is thread-safe and seeded once.
      *
      * @param length the length of the code to generate.
      * @return a string representing the generated code.
      */
-    private String generateCode(int length) {
+    private String randomCode(int length) {
         String characters = "0123456789";
-        StringBuilder code = new StringBuilder();
-        SecureRandom secureRandom = new SecureRandom();
+        StringBuilder builder = new StringBuilder(length);
         for (int i = 0; i < length; i++) {
             int randomIndex = secureRandom.nextInt(characters.length());
-            code.append(characters.charAt(randomIndex));
+            builder.append(characters.charAt(randomIndex));
         }
-        return code.toString();
+        return builder.toString();
     }
 
     /**
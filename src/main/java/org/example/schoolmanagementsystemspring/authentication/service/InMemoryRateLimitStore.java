@@ -0,0 +1,54 @@
+package org.example.schoolmanagementsystemspring.authentication.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The InMemoryRateLimitStore class keeps the token buckets in a bounded Caffeine cache.
+ * Each bucket is updated with a compare-and-set loop, so concurrent requests never block each other.
+ * A bucket that was not used for the idle timeout is full again, so it is evicted without changing the limits,
+ * and the maximum size bounds the memory used when the keys are spread over many addresses.
+ *
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    private final Cache<String, AtomicReference<Bucket>> buckets;
+
+    private final Ticker ticker;
+
+    public InMemoryRateLimitStore(long maximumSize, Duration idleTimeout, Ticker ticker) {
+        this.ticker = ticker;
+        this.buckets = Caffeine
+                .newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(idleTimeout)
+                .ticker(ticker)
+                .build();
+    }
+
+    @Override
+    public long tryConsume(String key, long capacity, Duration period) {
+        long now = ticker.read();
+        double refillPerNano = (double) capacity / period.toNanos();
+        AtomicReference<Bucket> reference = buckets.get(key, ignored -> new AtomicReference<>(new Bucket(capacity, now)));
+        while (true) {
+            Bucket bucket = reference.get();
+            double tokens = Math.min(capacity, bucket.tokens() + Math.max(0, now - bucket.updatedAt()) * refillPerNano);
+            if (tokens < 1)
+                return Math.max(1, TimeUnit.NANOSECONDS.toMillis((long) Math.ceil((1 - tokens) / refillPerNano)));
+            if (reference.compareAndSet(bucket, new Bucket(tokens - 1, Math.max(now, bucket.updatedAt()))))
+                return 0;
+        }
+    }
+
+    private record Bucket(double tokens, long updatedAt) {
+    }
+}
@@ -1,5 +1,6 @@
 package org.example.schoolmanagementsystemspring.authentication.service;
 
+import org.example.schoolmanagementsystemspring.authentication.dto.TokenClaims;
 import org.example.schoolmanagementsystemspring.authentication.entity.Token;
 import org.example.schoolmanagementsystemspring.user.entity.User;
 
@@ -8,7 +9,7 @@ import java.util.Map;
 
 /**
  * The JwtService interface provides the contract for the JWT service.
- * It includes methods for generating tokens, validating tokens, getting the expiration date of a token, and getting the subject of a token.
+ * It includes methods for generating tokens, validating tokens, parsing the claims of a token, getting the expiration date of a token, and getting the subject of a token.
  *
  * @author FFreitas
  * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
@@ -42,6 +43,25 @@ public interface JwtService {
      */
     boolean isTokenValid(Token token, User user);
 
+    /**
+     * The isTokenValid method checks if already parsed claims are valid for a user.
+     * It does not verify the signature again.
+     *
+     * @param claims the verified claims of the token.
+     * @param user   the user for whom the claims are to be checked.
+     * @return a boolean indicating whether the claims are valid.
+     */
+    boolean isTokenValid(TokenClaims claims, User user);
+
+    /**
+     * The parseClaims method verifies the signature of a token and parses its claims in a single pass.
+     * If the token is malformed, expired or its signature is invalid, it throws a JwtException.
+     *
+     * @param token the token to be parsed.
+     * @return a TokenClaims object holding the subject, expiration, authorities and audience of the token.
+     */
+    TokenClaims parseClaims(String token);
+
     /**
      * The getExpirationDate method gets the expiration date of a token.
      *
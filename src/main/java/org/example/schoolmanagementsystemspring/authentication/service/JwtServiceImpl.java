@@ -1,21 +1,30 @@
 package org.example.schoolmanagementsystemspring.authentication.service;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.example.schoolmanagementsystemspring.authentication.dto.TokenClaims;
 import org.example.schoolmanagementsystemspring.authentication.entity.Token;
 import org.example.schoolmanagementsystemspring.user.entity.User;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * The JwtServiceImpl class is a service that implements the JwtService interface.
  * It provides methods for generating tokens, validating tokens, getting the expiration date of a token, and getting the subject of a token.
  * It uses the Jwts library to perform its operations.
+ * The signing key and the parser are built once at startup, and every token is verified and parsed only once into a TokenClaims object.
  *
  * @author FFreitas
  * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
@@ -36,8 +45,27 @@ public class JwtServiceImpl implements JwtService {
     @Value("${spring.application.name}")
     private String issuer;
 
+    private SecretKey signInKey;
+
+    private JwtParser parser;
+
+    /**
+     * The init method decodes the secret and builds the signing key and the parser once.
+     * Both are immutable and thread-safe, so they are shared by every request.
+     */
+    @PostConstruct
+    public void init() {
+        byte[] secretBytes = Decoders.BASE64.decode(secretKey);
+        signInKey = Keys.hmacShaKeyFor(secretBytes);
+        parser = Jwts
+                .parser()
+                .verifyWith(signInKey)
+                .build();
+    }
+
     /**
      * The generateToken method generates a token for a user with the provided claims.
+     * The token carries the id and the current token version of the user, which are used by the token version mode.
      *
      * @param user   the user for whom the token is to be generated.
      * @param claims a map containing the claims to be included in the token.
@@ -52,9 +80,11 @@ public class JwtServiceImpl implements JwtService {
                 .expiration(new Date(System.currentTimeMillis() + expireIn))
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .issuer(issuer)
-                .claim("authorities", user.getRole().getAuthorities())
+                .claim("authorities", user.getRole().getAuthorityClaims())
+                .claim("uid", user.getId())
+                .claim("tokenVersion", user.getTokenVersion())
                 .audience().add(user.getRole().name()).and()
-                .signWith(getSignInKey())
+                .signWith(signInKey)
                 .compact();
     }
 
@@ -72,13 +102,14 @@ public class JwtServiceImpl implements JwtService {
                 .expiration(new Date(System.currentTimeMillis() + expireRefreshTokenIn))
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .issuer(issuer)
-                .claim("authorities", user.getRole().getAuthorities())
-                .signWith(getSignInKey())
+                .claim("authorities", user.getRole().getAuthorityClaims())
+                .signWith(signInKey)
                 .compact();
     }
 
     /**
      * The isTokenValid method checks if a token is valid for a user.
+     * The raw value of a token is not stored, so a token loaded from the database is never valid here.
      *
      * @param token the token to be checked.
      * @param user  the user for whom the token is to be checked.
@@ -86,77 +117,85 @@ public class JwtServiceImpl implements JwtService {
      */
     @Override
     public boolean isTokenValid(Token token, User user) {
-        if (token == null || user == null)
+        if (token == null || token.getValue() == null || user == null)
             return false;
-        return isSubjectValid(token.getValue(), user.getUsername()) && isTokenNonExpired(token.getValue());
+        return isTokenValid(parseClaims(token.getValue()), user);
     }
 
     /**
-     * The getExpirationDate method gets the expiration date of a token.
+     * The isTokenValid method checks if already parsed claims are valid for a user.
+     * The claims are valid if their subject matches the username and they are not expired.
      *
-     * @param token the token whose expiration date is to be retrieved.
-     * @return a Date object representing the expiration date of the token.
+     * @param claims the verified claims of the token.
+     * @param user   the user for whom the claims are to be checked.
+     * @return a boolean indicating whether the claims are valid.
      */
     @Override
-    public Date getExpirationDate(String token) {
-        return Jwts
-                .parser()
-                .verifyWith(getSignInKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getExpiration();
+    public boolean isTokenValid(TokenClaims claims, User user) {
+        if (claims == null || user == null)
+            return false;
+        return user.getUsername().equals(claims.subject()) && claims.isNonExpired();
     }
 
     /**
-     * The getSubject method gets the subject of a token.
+     * The parseClaims method verifies the signature of a token and parses its claims in a single pass.
      *
-     * @param token the token whose subject is to be retrieved.
-     * @return a string representing the subject of the token.
+     * @param token the token to be parsed.
+     * @return a TokenClaims object holding the subject, expiration, authorities and audience of the token.
      */
     @Override
-    public String getSubject(String token) {
-        return Jwts
-                .parser()
-                .verifyWith(getSignInKey())
-                .build()
+    public TokenClaims parseClaims(String token) {
+        Claims payload = parser
                 .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+                .getPayload();
+        return TokenClaims
+                .builder()
+                .subject(payload.getSubject())
+                .userId(payload.get("uid", Integer.class))
+                .tokenVersion(payload.get("tokenVersion", Integer.class))
+                .expiration(payload.getExpiration())
+                .authorities(getAuthorities(payload))
+                .audience(payload.getAudience() == null ? Set.of() : Set.copyOf(payload.getAudience()))
+                .build();
     }
 
     /**
-     * The getSignInKey method gets the signing key for the tokens.
+     * The getExpirationDate method gets the expiration date of a token.
      *
-     * @return a SecretKey object representing the signing key.
+     * @param token the token whose expiration date is to be retrieved.
+     * @return a Date object representing the expiration date of the token.
      */
-    private SecretKey getSignInKey() {
-        byte[] secretBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(secretBytes);
+    @Override
+    public Date getExpirationDate(String token) {
+        return parseClaims(token).expiration();
     }
 
     /**
-     * This method checks if the subject of a token matches the provided username.
-     * It retrieves the subject from the token and compares it with the provided username.
-     * If they match, it returns true; otherwise, it returns false.
+     * The getSubject method gets the subject of a token.
      *
-     * @param token    the token whose subject is to be checked.
-     * @param username the username to be compared with the subject of the token.
-     * @return a boolean indicating whether the subject of the token matches the provided username.
+     * @param token the token whose subject is to be retrieved.
+     * @return a string representing the subject of the token.
      */
-    private boolean isSubjectValid(String token, String username) {
-        return getSubject(token).equals(username);
+    @Override
+    public String getSubject(String token) {
+        return parseClaims(token).subject();
     }
 
     /**
-     * This method checks if a token is not expired.
-     * It retrieves the expiration date of the token and compares it with the current date.
-     * If the expiration date is after the current date, it returns true; otherwise, it returns false.
+     * This method reads the authorities claim of a token.
+     * The authorities are serialized either as plain strings or as objects with an "authority" field.
      *
-     * @param token the token whose expiration date is to be checked.
-     * @return a boolean indicating whether the token is not expired.
+     * @param payload the verified claims of the token.
+     * @return a list with the authority names, or an empty list if the claim is missing.
      */
-    private boolean isTokenNonExpired(String token) {
-        return getExpirationDate(token).after(new Date());
+    private List<String> getAuthorities(Claims payload) {
+        if (!(payload.get("authorities") instanceof Collection<?> values))
+            return List.of();
+        return values
+                .stream()
+                .map(value -> value instanceof Map<?, ?> map ? map.get("authority") : value)
+                .filter(Objects::nonNull)
+                .map(Object::toString)
+                .toList();
     }
 }
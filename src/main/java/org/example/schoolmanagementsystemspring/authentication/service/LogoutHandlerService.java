@@ -1,12 +1,17 @@
 package org.example.schoolmanagementsystemspring.authentication.service;
 
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.schoolmanagementsystemspring.authentication.dto.TokenClaims;
+import org.example.schoolmanagementsystemspring.authentication.entity.AuthenticationMode;
 import org.example.schoolmanagementsystemspring.authentication.entity.Token;
 import org.example.schoolmanagementsystemspring.authentication.entity.TokenType;
 import org.example.schoolmanagementsystemspring.authentication.repository.TokenRepository;
+import org.example.schoolmanagementsystemspring.user.entity.User;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.web.authentication.logout.LogoutHandler;
 import org.springframework.stereotype.Service;
@@ -17,9 +22,10 @@ import static org.springframework.http.HttpHeaders.AUTHORIZATION;
 /**
  * The LogoutHandlerService class is a service that handles the logout process.
  * It implements the LogoutHandler interface, which provides a contract for handling logout.
- * It uses the TokenRepository to perform its operations.
+ * It uses the TokenRepository and the TokenCacheService to perform its operations.
  * It checks the Authorization header of the request, and if it starts with "Bearer", it attempts to handle the token.
  * If the Authorization header is missing or does not start with "Bearer", it returns without doing anything.
+ * In the token version mode, a single token cannot be revoked, so logging out revokes every token of the user.
  *
  * @author FFreitas
  * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
@@ -32,6 +38,12 @@ import static org.springframework.http.HttpHeaders.AUTHORIZATION;
 public class LogoutHandlerService implements LogoutHandler {
 
     private final TokenRepository repository;
+    private final TokenCacheService tokenCacheService;
+    private final TokenVersionService tokenVersionService;
+    private final JwtService jwtService;
+
+    @Value("${spring.application.security.jwt.mode}")
+    private AuthenticationMode mode;
 
     /**
      * The logout method is overridden to handle the logout process.
@@ -51,18 +63,42 @@ public class LogoutHandlerService implements LogoutHandler {
             return;
         }
         String token = authHeader.substring(7);
+        if (mode == AuthenticationMode.TOKEN_VERSION) {
+            revokeVersion(token);
+            return;
+        }
         repository.findByToken(token)
-                .ifPresent(this::handleToken);
+                .ifPresent(stored -> handleToken(stored, token));
     }
 
     /**
      * This method handles a token during the logout process.
-     * It sets the token as expired and saves it in the repository.
+     * It sets the token as expired, saves it in the repository and removes it from the token cache.
      *
      * @param token the token to be handled.
+     * @param value the raw value of the token, which is not stored.
      */
-    private void handleToken(Token token) {
+    private void handleToken(Token token, String value) {
         token.setExpired(true);
         repository.save(token);
+        tokenCacheService.invalidate(value, token.getUser() == null ? null : token.getUser().getId());
+    }
+
+    /**
+     * This method revokes every token of the user that owns a token in the token version mode.
+     * Tokens with an invalid signature or without a version are ignored.
+     *
+     * @param token the raw bearer token.
+     */
+    private void revokeVersion(String token) {
+        try {
+            TokenClaims claims = jwtService.parseClaims(token);
+            if (claims.userId() == null || !tokenVersionService.isCurrent(claims.userId(), claims.tokenVersion()))
+                return;
+            User user = User.builder().id(claims.userId()).tokenVersion(claims.tokenVersion()).build();
+            tokenVersionService.revoke(user);
+        } catch (JwtException e) {
+            log.warn("Logout: Invalid token ...");
+        }
     }
-}
\ No newline at end of file
+}
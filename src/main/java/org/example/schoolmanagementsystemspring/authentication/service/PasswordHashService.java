@@ -0,0 +1,118 @@
+package org.example.schoolmanagementsystemspring.authentication.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.schoolmanagementsystemspring.config.ExecutorBusyException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The PasswordHashService class hashes passwords on the hash executor, a pool with one thread per available processor.
+ * Hashing a password with BCrypt takes tens of milliseconds of CPU, so it must be done before a transaction starts,
+ * never while a database connection is held.
+ * The pool bounds the number of passwords hashed at the same time, so a burst of registrations cannot take every core,
+ * and lets a bulk import hash many passwords in parallel.
+ * A password that cannot be hashed in time, because the pool is full or stuck, fails with an ExecutorBusyException
+ * instead of blocking the caller.
+ * The time spent hashing each password is recorded in the "password.hash" timer, with a histogram.
+ *
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+@Service
+public class PasswordHashService {
+
+    private final PasswordEncoder encoder;
+
+    private final ThreadPoolTaskExecutor executor;
+
+    private final Duration timeout;
+
+    private final Timer timer;
+
+    public PasswordHashService(PasswordEncoder encoder, @Qualifier("hashExecutor") ThreadPoolTaskExecutor executor,
+                               @Value("${executors.hash.timeout}") Duration timeout, MeterRegistry meterRegistry) {
+        this.encoder = encoder;
+        this.executor = executor;
+        this.timeout = timeout;
+        this.timer = Timer
+                .builder("password.hash")
+                .description("Time spent hashing a password")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * The encode method hashes a password on the hash executor and waits for the hash.
+     *
+     * @param password the raw password.
+     * @return the hash of the password.
+     * @throws ExecutorBusyException if the password is not hashed in time.
+     */
+    public String encode(@NonNull String password) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        return join(encodeAsync(password), deadline);
+    }
+
+    /**
+     * The encodeAll method hashes several passwords in parallel on the hash executor and waits for all the hashes.
+     *
+     * @param passwords the raw passwords.
+     * @return the hashes of the passwords, in the same order.
+     * @throws ExecutorBusyException if the passwords are not all hashed in time.
+     */
+    public List<String> encodeAll(@NonNull List<String> passwords) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        List<CompletableFuture<String>> hashes = passwords.stream().map(this::encodeAsync).toList();
+        return hashes.stream().map(hash -> join(hash, deadline)).toList();
+    }
+
+    private CompletableFuture<String> encodeAsync(String password) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                Timer.Sample sample = Timer.start();
+                String hash = encoder.encode(password);
+                sample.stop(timer);
+                return hash;
+            }, executor);
+        } catch (TaskRejectedException e) {
+            throw new ExecutorBusyException("Too many passwords are being hashed", e);
+        }
+    }
+
+    /**
+     * This method waits for a hash until the deadline shared by the hashes of a call.
+     *
+     * @param hash     the hash being computed.
+     * @param deadline the deadline, in System.nanoTime units.
+     * @return the hash.
+     * @throws ExecutorBusyException if the hash is not computed before the deadline.
+     */
+    private String join(CompletableFuture<String> hash, long deadline) {
+        try {
+            return hash.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            hash.cancel(false);
+            throw new ExecutorBusyException("Timed out waiting for the password hash", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExecutorBusyException("Interrupted while waiting for the password hash", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new IllegalStateException("Could not hash the password", e.getCause());
+        }
+    }
+}
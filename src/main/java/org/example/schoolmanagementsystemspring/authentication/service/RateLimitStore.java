@@ -0,0 +1,27 @@
+package org.example.schoolmanagementsystemspring.authentication.service;
+
+import java.time.Duration;
+
+/**
+ * The RateLimitStore interface holds the token buckets of the RateLimiterService.
+ * By default, the buckets are kept in memory (see InMemoryRateLimitStore), so each node limits its own traffic.
+ * A deployment with several nodes can declare a bean of this interface backed by a shared store,
+ * and the limits then apply to the traffic of all the nodes.
+ *
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+public interface RateLimitStore {
+
+    /**
+     * The tryConsume method takes one token from a bucket.
+     * A bucket holds up to capacity tokens and is refilled with capacity tokens per period, continuously.
+     *
+     * @param key      the key of the bucket.
+     * @param capacity the maximum number of tokens of the bucket.
+     * @param period   the time it takes to refill an empty bucket.
+     * @return 0 if a token was taken, otherwise the number of milliseconds until a token is available.
+     */
+    long tryConsume(String key, long capacity, Duration period);
+}
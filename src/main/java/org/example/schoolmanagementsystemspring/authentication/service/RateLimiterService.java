@@ -0,0 +1,135 @@
+package org.example.schoolmanagementsystemspring.authentication.service;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.schoolmanagementsystemspring.authentication.entity.RateLimitRule;
+import org.example.schoolmanagementsystemspring.authentication.exception.TooManyRequestsException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The RateLimiterService class limits the requests to the unauthenticated authentication endpoints,
+ * which hash passwords and send emails, so a flood of requests is rejected before any of that work is done.
+ * Each RateLimitRule has a token bucket per key (the IP address of the client or the email of the request),
+ * with a configurable capacity and refill period.
+ * The buckets are kept in the RateLimitStore bean if one is declared, or in memory otherwise.
+ * The allowed and rejected requests are counted in the "rate.limit" counter, tagged by rule and outcome.
+ *
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RateLimiterService {
+
+    @Value("${rate-limit.enabled}")
+    private boolean enabled;
+
+    @Value("${rate-limit.maximum-keys}")
+    private long maximumKeys;
+
+    @Value("${rate-limit.authenticate.ip.capacity}")
+    private long authenticateIpCapacity;
+    @Value("${rate-limit.authenticate.ip.period}")
+    private Duration authenticateIpPeriod;
+
+    @Value("${rate-limit.authenticate.email.capacity}")
+    private long authenticateEmailCapacity;
+    @Value("${rate-limit.authenticate.email.period}")
+    private Duration authenticateEmailPeriod;
+
+    @Value("${rate-limit.activation-code.ip.capacity}")
+    private long activationCodeIpCapacity;
+    @Value("${rate-limit.activation-code.ip.period}")
+    private Duration activationCodeIpPeriod;
+
+    @Value("${rate-limit.activation-code.email.capacity}")
+    private long activationCodeEmailCapacity;
+    @Value("${rate-limit.activation-code.email.period}")
+    private Duration activationCodeEmailPeriod;
+
+    private final ObjectProvider<RateLimitStore> storeProvider;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<RateLimitRule, Limit> limits = new EnumMap<>(RateLimitRule.class);
+
+    private RateLimitStore store;
+
+    /**
+     * The init method builds the limit of each rule, registers its counters and selects the store of the buckets.
+     */
+    @PostConstruct
+    public void init() {
+        limits.put(RateLimitRule.AUTHENTICATE_IP, limit(RateLimitRule.AUTHENTICATE_IP, authenticateIpCapacity, authenticateIpPeriod));
+        limits.put(RateLimitRule.AUTHENTICATE_EMAIL, limit(RateLimitRule.AUTHENTICATE_EMAIL, authenticateEmailCapacity, authenticateEmailPeriod));
+        limits.put(RateLimitRule.ACTIVATION_CODE_IP, limit(RateLimitRule.ACTIVATION_CODE_IP, activationCodeIpCapacity, activationCodeIpPeriod));
+        limits.put(RateLimitRule.ACTIVATION_CODE_EMAIL, limit(RateLimitRule.ACTIVATION_CODE_EMAIL, activationCodeEmailCapacity, activationCodeEmailPeriod));
+        Duration idleTimeout = limits.values().stream().map(Limit::period).max(Duration::compareTo).orElseThrow();
+        store = storeProvider.getIfAvailable(() -> new InMemoryRateLimitStore(maximumKeys, idleTimeout, Ticker.systemTicker()));
+        log.info("Rate limiting {} with {}", enabled ? "enabled" : "disabled", store.getClass().getSimpleName());
+    }
+
+    /**
+     * The check method takes one request from the bucket of a key.
+     *
+     * @param rule the rule to apply.
+     * @param key  the IP address or the email the request is counted for.
+     * @throws TooManyRequestsException if the bucket is empty.
+     */
+    public void check(RateLimitRule rule, String key) throws TooManyRequestsException {
+        long retryAfter = tryAcquire(rule, key);
+        if (retryAfter > 0)
+            throw new TooManyRequestsException("Too many requests, try again later", retryAfter);
+    }
+
+    /**
+     * The tryAcquire method takes one request from the bucket of a key.
+     * Requests without a key are not limited by this rule.
+     *
+     * @param rule the rule to apply.
+     * @param key  the IP address or the email the request is counted for.
+     * @return 0 if the request is allowed, otherwise the number of seconds to wait before the next request.
+     */
+    public long tryAcquire(RateLimitRule rule, String key) {
+        if (!enabled || key == null || key.isBlank()) return 0;
+        Limit limit = limits.get(rule);
+        long wait = store.tryConsume(rule.name() + ":" + key.trim().toLowerCase(Locale.ROOT), limit.capacity(), limit.period());
+        if (wait == 0) {
+            limit.allowed().increment();
+            return 0;
+        }
+        limit.rejected().increment();
+        log.debug("Rate limit {} reached for {}", rule, key);
+        return Math.max(1, TimeUnit.MILLISECONDS.toSeconds(wait + 999));
+    }
+
+    private Limit limit(RateLimitRule rule, long capacity, Duration period) {
+        return new Limit(capacity, period, counter(rule, "allowed"), counter(rule, "rejected"));
+    }
+
+    private Counter counter(RateLimitRule rule, String outcome) {
+        return Counter
+                .builder("rate.limit")
+                .description("Number of requests checked by the rate limiter")
+                .tag("rule", rule.name().toLowerCase())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record Limit(long capacity, Duration period, Counter allowed, Counter rejected) {
+    }
+}
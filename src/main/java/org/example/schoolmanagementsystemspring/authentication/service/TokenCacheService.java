@@ -0,0 +1,178 @@
+package org.example.schoolmanagementsystemspring.authentication.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.example.schoolmanagementsystemspring.authentication.entity.Token;
+import org.example.schoolmanagementsystemspring.user.entity.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The TokenCacheService class keeps the bearer tokens that were already validated against the database in memory.
+ * Entries are keyed by the SHA-256 digest of the token, so the raw token is never kept as a key,
+ * and each entry expires at the "exp" claim of its token.
+ * The cache is bounded and is invalidated whenever a token is marked as expired (logout, login, refresh or user disabled).
+ * Invalidations are applied right away and again after the surrounding transaction commits,
+ * and a short-lived revocation marker prevents a request that read the database before the commit from caching a revoked token.
+ * The cache is local to each node, revocations are not propagated between nodes.
+ *
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+@Slf4j
+@Service
+public class TokenCacheService {
+
+    private static final Duration REVOCATION_WINDOW = Duration.ofMinutes(1);
+
+    @Value("${spring.application.security.jwt.cache.maximum-size}")
+    private long maximumSize;
+
+    private Cache<String, CachedToken> tokens;
+
+    private Cache<Integer, Long> revocations;
+
+    /**
+     * The init method builds the token cache and the revocation markers.
+     */
+    @PostConstruct
+    public void init() {
+        tokens = Caffeine
+                .newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpiry())
+                .build();
+        revocations = Caffeine
+                .newBuilder()
+                .expireAfterWrite(REVOCATION_WINDOW)
+                .build();
+        log.info("Token cache initialized with a maximum size of {} entries", maximumSize);
+    }
+
+    /**
+     * The getUser method returns the user of a cached token.
+     * A token is only in the cache if it was valid in the database and its signature was verified.
+     *
+     * @param token the raw bearer token.
+     * @return an Optional of User if the token is cached and not expired, empty Optional otherwise.
+     */
+    public Optional<User> getUser(@NonNull String token) {
+        CachedToken cached = tokens.getIfPresent(hash(token));
+        if (cached == null || cached.expiresAt() <= System.currentTimeMillis())
+            return Optional.empty();
+        return Optional.of(cached.user());
+    }
+
+    /**
+     * The put method caches a validated token until its expiration date.
+     * If the user had a token revoked after the validation started, the token is not cached.
+     *
+     * @param token     the raw bearer token.
+     * @param user      the user that owns the token.
+     * @param expiresAt the expiration date of the token.
+     * @param loadedAt  the System.nanoTime() value taken before the token was read from the database.
+     */
+    public void put(@NonNull String token, @NonNull User user, @NonNull Date expiresAt, long loadedAt) {
+        Long revokedAt = revocations.getIfPresent(user.getId());
+        if (revokedAt != null && revokedAt - loadedAt >= 0)
+            return;
+        tokens.put(hash(token), new CachedToken(user.getId(), user, expiresAt.getTime()));
+    }
+
+    /**
+     * The invalidate method removes a token from the cache.
+     *
+     * @param token  the raw bearer token.
+     * @param userId the id of the user that owns the token.
+     */
+    public void invalidate(@NonNull String token, Integer userId) {
+        String key = hash(token);
+        runNowAndAfterCommit(() -> {
+            markRevoked(userId);
+            tokens.invalidate(key);
+        });
+    }
+
+    /**
+     * The invalidateUser method removes all the tokens of a user from the cache.
+     *
+     * @param userId the id of the user.
+     */
+    public void invalidateUser(Integer userId) {
+        if (userId == null) return;
+        runNowAndAfterCommit(() -> {
+            markRevoked(userId);
+            tokens.asMap().values().removeIf(cached -> userId.equals(cached.userId()));
+        });
+    }
+
+    /**
+     * This method computes the SHA-256 digest of a token encoded as Base64.
+     *
+     * @param token the raw token.
+     * @return the digest of the token.
+     */
+    private String hash(String token) {
+        return Base64.getEncoder().encodeToString(Token.hash(token));
+    }
+
+    private void markRevoked(Integer userId) {
+        if (userId != null)
+            revocations.put(userId, System.nanoTime());
+    }
+
+    /**
+     * This method runs an invalidation immediately and, if a transaction is active, once more after it commits.
+     * This way a request that reads the token between the invalidation and the commit cannot keep it cached.
+     *
+     * @param action the invalidation to run.
+     */
+    private void runNowAndAfterCommit(Runnable action) {
+        action.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    private record CachedToken(Integer userId, User user, long expiresAt) { }
+
+    /**
+     * The TokenExpiry class expires each entry at the expiration date of its token.
+     */
+    private static class TokenExpiry implements Expiry<String, CachedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedToken value, long currentTime) {
+            long remaining = value.expiresAt() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remaining, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
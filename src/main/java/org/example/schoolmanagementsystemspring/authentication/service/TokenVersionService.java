@@ -0,0 +1,97 @@
+package org.example.schoolmanagementsystemspring.authentication.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.schoolmanagementsystemspring.user.entity.User;
+import org.example.schoolmanagementsystemspring.user.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * The TokenVersionService class keeps the token version of each user in memory for the token version mode.
+ * A token is valid only if the version it was signed with matches the current version of its user.
+ * Revoking the tokens of a user increments the version in the users table with a single statement,
+ * instead of loading and updating every token row of the user.
+ * The versions are cached for a configurable time, so other nodes see a revocation once their entry expires.
+ *
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenVersionService {
+
+    @Value("${spring.application.security.jwt.cache.maximum-size}")
+    private long maximumSize;
+
+    @Value("${spring.application.security.jwt.version-refresh-interval}")
+    private Duration refreshInterval;
+
+    private final UserRepository userRepository;
+
+    private Cache<Integer, Integer> versions;
+
+    /**
+     * The init method builds the cache of the token versions.
+     */
+    @PostConstruct
+    public void init() {
+        versions = Caffeine
+                .newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(refreshInterval)
+                .build();
+    }
+
+    /**
+     * The isCurrent method checks if a token version is the current version of a user.
+     * The version is read from the database only when it is not in memory.
+     *
+     * @param userId  the id of the user.
+     * @param version the token version carried by the token.
+     * @return a boolean indicating whether the version is current.
+     */
+    public boolean isCurrent(Integer userId, Integer version) {
+        if (userId == null || version == null)
+            return false;
+        Integer current = versions.get(userId, id -> userRepository.findTokenVersionById(id).orElse(null));
+        return version.equals(current);
+    }
+
+    /**
+     * The revoke method invalidates every token of a user by incrementing the token version of the user.
+     * The new version is set on the given entity, so tokens generated afterwards in the same transaction are valid.
+     *
+     * @param user the user whose tokens are to be revoked.
+     */
+    @Transactional
+    public void revoke(@NonNull User user) {
+        userRepository.incrementTokenVersion(user.getId());
+        int version = userRepository
+                .findTokenVersionById(user.getId())
+                .orElse(user.getTokenVersion() + 1);
+        user.setTokenVersion(version);
+        versions.put(user.getId(), version);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK)
+                        versions.invalidate(user.getId());
+                }
+            });
+        }
+        log.info("Token version of user {} incremented to {}", user.getId(), version);
+    }
+}
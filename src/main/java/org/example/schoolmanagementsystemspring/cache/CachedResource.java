@@ -0,0 +1,14 @@
+package org.example.schoolmanagementsystemspring.cache;
+
+/**
+ * The CachedResource enum lists the endpoints answered with HTTP validators, each with its own Cache-Control policy.
+ *
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+public enum CachedResource {
+    SCHOOLS,
+    FUTURE_EVENTS,
+    COURSE_TEXTBOOKS
+}
@@ -0,0 +1,88 @@
+package org.example.schoolmanagementsystemspring.cache;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * The ConditionalResponseService class answers the requests of slowly-changing lists with an entity tag.
+ * The version of the list is computed first, with an aggregate query over the ids and audit columns of its rows,
+ * and a request whose If-None-Match header matches it is answered with 304 Not Modified,
+ * without loading or serializing the list.
+ * Otherwise, the list is loaded and returned with its ETag header.
+ * No Last-Modified header is sent: the last modification date of the rows does not change when a row is removed,
+ * so a client revalidating with If-Modified-Since would keep a list with the removed row.
+ * Each endpoint has its own Cache-Control policy, configured under "http-cache": with a max-age of zero,
+ * clients may store the response but must revalidate it on every use, which costs a 304 when nothing changed.
+ *
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+@Service
+public class ConditionalResponseService {
+
+    @Value("${http-cache.schools.max-age}")
+    private Duration schoolsMaxAge;
+    @Value("${http-cache.schools.shared}")
+    private boolean schoolsShared;
+
+    @Value("${http-cache.future-events.max-age}")
+    private Duration futureEventsMaxAge;
+    @Value("${http-cache.future-events.shared}")
+    private boolean futureEventsShared;
+
+    @Value("${http-cache.course-textbooks.max-age}")
+    private Duration courseTextbooksMaxAge;
+    @Value("${http-cache.course-textbooks.shared}")
+    private boolean courseTextbooksShared;
+
+    private final Map<CachedResource, CacheControl> policies = new EnumMap<>(CachedResource.class);
+
+    @PostConstruct
+    public void init() {
+        policies.put(CachedResource.SCHOOLS, cacheControl(schoolsMaxAge, schoolsShared));
+        policies.put(CachedResource.FUTURE_EVENTS, cacheControl(futureEventsMaxAge, futureEventsShared));
+        policies.put(CachedResource.COURSE_TEXTBOOKS, cacheControl(courseTextbooksMaxAge, courseTextbooksShared));
+    }
+
+    /**
+     * The respond method returns 304 Not Modified if the client has the current version, or the body otherwise.
+     * The ETag header is written by the request in both cases.
+     *
+     * @param request  the request.
+     * @param resource the endpoint, which defines the Cache-Control policy.
+     * @param version  the current version of the resource.
+     * @param body     the supplier of the body, only called if the client does not have the current version.
+     * @return the response.
+     */
+    public <T> ResponseEntity<T> respond(@NonNull WebRequest request, @NonNull CachedResource resource,
+                                         @NonNull ResourceVersion version, @NonNull Supplier<T> body) {
+        CacheControl cacheControl = policies.get(resource);
+        if (request.checkNotModified(version.eTag()))
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).build();
+        return ResponseEntity.ok().cacheControl(cacheControl).body(body.get());
+    }
+
+    /**
+     * The cacheControl method builds a Cache-Control policy.
+     *
+     * @param maxAge the time the response may be used without revalidation, zero to always revalidate.
+     * @param shared whether shared caches may store the response, which must be false for authenticated endpoints.
+     * @return the Cache-Control policy.
+     */
+    private CacheControl cacheControl(@NonNull Duration maxAge, boolean shared) {
+        CacheControl cacheControl = maxAge.isZero() ? CacheControl.noCache() : CacheControl.maxAge(maxAge).mustRevalidate();
+        return shared ? cacheControl.cachePublic() : cacheControl.cachePrivate();
+    }
+}
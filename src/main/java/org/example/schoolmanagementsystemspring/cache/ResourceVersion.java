@@ -0,0 +1,29 @@
+package org.example.schoolmanagementsystemspring.cache;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * The ResourceVersion record represents the version of a list of rows, computed by an aggregate query
+ * over their audit columns without loading the rows.
+ * The number of rows and the sum of their ids change when a row is added or removed,
+ * and the last modification date changes when a row is updated, so the entity tag derived from them
+ * changes whenever the list changes.
+ *
+ * @param count        the number of rows.
+ * @param idSum        the sum of the ids of the rows.
+ * @param lastModified the last creation or modification date of the rows, or null if there are no rows.
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+public record ResourceVersion(Long count, Long idSum, LocalDateTime lastModified) {
+
+    public String eTag() {
+        return "\"" + Long.toHexString(count) + "-" + Long.toHexString(idSum == null ? 0 : idSum) + "-" + Long.toHexString(lastModifiedMillis()) + "\"";
+    }
+
+    private long lastModifiedMillis() {
+        return lastModified == null ? -1 : lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,16 @@
+package org.example.schoolmanagementsystemspring.config;
+
+/**
+ * The ExecutorBusyException is thrown when a task awaited by a request is rejected by its executor,
+ * or does not complete in time, so the request fails with 503 Service Unavailable instead of waiting forever.
+ *
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+public class ExecutorBusyException extends RuntimeException {
+
+    public ExecutorBusyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,156 @@
+package org.example.schoolmanagementsystemspring.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The ExecutorConfiguration class defines one executor per asynchronous workload:
+ * hashing passwords, resizing images and other background jobs (the default executor of the @Async methods).
+ * Each executor has its own pool, queue and rejection policy, so a burst of background jobs cannot delay the resizing of images.
+ * Emails are not sent by an executor, they are queued in the outbox and sent by the EmailOutboxDispatcher.
+ * When virtual threads are enabled, the pool threads are virtual threads, and the pool size still limits the concurrency.
+ * The password hashing executor is CPU-bound, so it always uses platform threads, one per available processor.
+ * The image executor is CPU-bound and memory-hungry, so it always uses platform threads, with a small configurable pool.
+ * The callers of the hash and image executors wait for the result of their tasks, so these executors cannot use
+ * the DROP policy, which would leave the caller waiting for a task that never runs; it is refused on startup.
+ * Spring Boot exports the pool size, active count and queue depth of each executor as "executor.*" metrics
+ * tagged with the bean name, and this class adds the "executor.rejected" counter.
+ *
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+public class ExecutorConfiguration {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${spring.threads.virtual.enabled}")
+    private boolean virtualThreads;
+
+    @Value("${executors.block-timeout}")
+    private long blockTimeout;
+
+    @Value("${executors.hash.queue-capacity}")
+    private int hashQueueCapacity;
+    @Value("${executors.hash.rejection-policy}")
+    private RejectionPolicy hashRejectionPolicy;
+
+    @Value("${executors.image.pool-size}")
+    private int imagePoolSize;
+    @Value("${executors.image.queue-capacity}")
+    private int imageQueueCapacity;
+    @Value("${executors.image.rejection-policy}")
+    private RejectionPolicy imageRejectionPolicy;
+
+    @Value("${executors.background.pool-size}")
+    private int backgroundPoolSize;
+    @Value("${executors.background.queue-capacity}")
+    private int backgroundQueueCapacity;
+    @Value("${executors.background.rejection-policy}")
+    private RejectionPolicy backgroundRejectionPolicy;
+
+    @Bean
+    public ThreadPoolTaskExecutor hashExecutor() {
+        requireAwaitablePolicy("hashExecutor", hashRejectionPolicy);
+        int cores = Runtime.getRuntime().availableProcessors();
+        return executor("hashExecutor", "Thread Hash -", cores, hashQueueCapacity, hashRejectionPolicy, false);
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor imageExecutor() {
+        requireAwaitablePolicy("imageExecutor", imageRejectionPolicy);
+        return executor("imageExecutor", "Thread Image -", imagePoolSize, imageQueueCapacity, imageRejectionPolicy, false);
+    }
+
+    @Bean(name = {"taskExecutor", "backgroundExecutor"})
+    public ThreadPoolTaskExecutor backgroundExecutor() {
+        return executor("backgroundExecutor", "Thread Background -", backgroundPoolSize, backgroundQueueCapacity, backgroundRejectionPolicy, virtualThreads);
+    }
+
+    /**
+     * This method builds a bounded executor.
+     *
+     * @param name           the name of the executor, used as the tag of the rejection counter.
+     * @param prefix         the prefix of the names of the threads.
+     * @param poolSize       the number of threads of the pool.
+     * @param queueCapacity  the number of tasks that can wait for a thread.
+     * @param policy         what to do with a task when the pool and the queue are full.
+     * @param virtual        whether the threads of the pool are virtual threads.
+     * @return the executor, already initialized.
+     */
+    private ThreadPoolTaskExecutor executor(String name, String prefix, int poolSize, int queueCapacity, RejectionPolicy policy, boolean virtual) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix(prefix);
+        if (virtual)
+            executor.setThreadFactory(Thread.ofVirtual().name(prefix, 0).factory());
+        Counter rejected = Counter
+                .builder("executor.rejected")
+                .description("Number of tasks that found the pool and the queue full, handled by the rejection policy")
+                .tag("name", name)
+                .tag("policy", policy.name().toLowerCase())
+                .register(meterRegistry);
+        executor.setRejectedExecutionHandler(rejectionHandler(name, policy, rejected));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * This method checks that the rejection policy of an executor whose tasks are awaited fails the rejected tasks
+     * or runs them, instead of dropping them.
+     *
+     * @param name   the name of the executor.
+     * @param policy the rejection policy of the executor.
+     * @throws IllegalStateException if the policy is DROP.
+     */
+    private void requireAwaitablePolicy(String name, RejectionPolicy policy) {
+        if (policy == RejectionPolicy.DROP)
+            throw new IllegalStateException("Executor " + name + " cannot use the DROP rejection policy, its tasks are awaited");
+    }
+
+    /**
+     * This method builds the handler of the tasks rejected by an executor.
+     * Every rejection is counted, whatever the policy.
+     *
+     * @param name     the name of the executor.
+     * @param policy   the rejection policy of the executor.
+     * @param rejected the rejection counter of the executor.
+     * @return the rejection handler.
+     */
+    private RejectedExecutionHandler rejectionHandler(String name, RejectionPolicy policy, Counter rejected) {
+        RejectedExecutionHandler callerRuns = new ThreadPoolExecutor.CallerRunsPolicy();
+        return (task, pool) -> {
+            rejected.increment();
+            switch (policy) {
+                case CALLER_RUNS -> callerRuns.rejectedExecution(task, pool);
+                case DROP -> log.warn("Executor {} is full, task dropped", name);
+                case BLOCK -> {
+                    try {
+                        if (pool.isShutdown() || !pool.getQueue().offer(task, blockTimeout, TimeUnit.MILLISECONDS))
+                            throw new RejectedExecutionException("Executor " + name + " is full");
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RejectedExecutionException("Interrupted while waiting for executor " + name, e);
+                    }
+                }
+            }
+        };
+    }
+}
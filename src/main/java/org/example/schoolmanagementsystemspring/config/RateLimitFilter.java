@@ -0,0 +1,60 @@
+package org.example.schoolmanagementsystemspring.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.example.schoolmanagementsystemspring.authentication.entity.RateLimitRule;
+import org.example.schoolmanagementsystemspring.authentication.service.RateLimiterService;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * The RateLimitFilter class limits the requests to the unauthenticated authentication endpoints by the IP address of the client.
+ * It runs before any other filter, so a rejected request does not reach the security filters, the body parsing or the database,
+ * and answers 429 Too Many Requests with a Retry-After header.
+ * The limits by email are checked by the AuthenticationController, once the body of the request is read.
+ * The IP address is the remote address of the connection; behind a proxy, server.forward-headers-strategy must be set.
+ *
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Map<String, RateLimitRule> RULES = Map.of(
+            "/api/v1/auth/authenticate", RateLimitRule.AUTHENTICATE_IP,
+            "/api/v1/auth/generate-activation-code", RateLimitRule.ACTIVATION_CODE_IP
+    );
+
+    private final RateLimiterService rateLimiterService;
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest req) {
+        return !HttpMethod.POST.matches(req.getMethod()) || !RULES.containsKey(req.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest req, @NonNull HttpServletResponse res, @NonNull FilterChain chain) throws ServletException, IOException {
+        long retryAfter = rateLimiterService.tryAcquire(RULES.get(req.getServletPath()), req.getRemoteAddr());
+        if (retryAfter > 0) {
+            res.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+            res.sendError(HttpStatus.TOO_MANY_REQUESTS.value());
+            return;
+        }
+        chain.doFilter(req, res);
+    }
+}
@@ -0,0 +1,18 @@
+package org.example.schoolmanagementsystemspring.config;
+
+/**
+ * The RejectionPolicy enum defines what an executor does with a task when its pool and queue are full.
+ * CALLER_RUNS runs the task in the thread that submitted it, which slows the caller down.
+ * DROP discards the task, so the caller is not affected but the work is lost;
+ * it is only allowed for fire-and-forget work, never for an executor whose tasks are awaited.
+ * BLOCK waits for a free slot in the queue up to a timeout, and rejects the task if none is freed.
+ *
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+public enum RejectionPolicy {
+    CALLER_RUNS,
+    DROP,
+    BLOCK
+}
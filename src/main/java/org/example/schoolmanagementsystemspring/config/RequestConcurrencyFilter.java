@@ -0,0 +1,74 @@
+package org.example.schoolmanagementsystemspring.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The RequestConcurrencyFilter class limits the number of requests processed at the same time when virtual threads are enabled.
+ * With virtual threads, Tomcat no longer has a bounded pool of request threads,
+ * so every incoming request would run and wait for a database connection.
+ * This filter allows a number of concurrent requests proportional to the size of the connection pool,
+ * and answers 503 Service Unavailable when a request cannot start within the acquire timeout.
+ *
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class RequestConcurrencyFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+
+    private final long acquireTimeout;
+
+    public RequestConcurrencyFilter(
+            @Value("${spring.datasource.hikari.maximum-pool-size}") int poolSize,
+            @Value("${concurrency.requests-per-connection}") int requestsPerConnection,
+            @Value("${concurrency.acquire-timeout}") long acquireTimeout) {
+        this.permits = new Semaphore(poolSize * requestsPerConnection, true);
+        this.acquireTimeout = acquireTimeout;
+        log.info("Limiting concurrent requests to {}", poolSize * requestsPerConnection);
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest req, @NonNull HttpServletResponse res, @NonNull FilterChain chain) throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            log.warn("Request rejected, too many concurrent requests ...");
+            res.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            res.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+        try {
+            chain.doFilter(req, res);
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package org.example.schoolmanagementsystemspring.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.example.schoolmanagementsystemspring.course.Course;
+import org.example.schoolmanagementsystemspring.event.Event;
+import org.example.schoolmanagementsystemspring.school.entity.School;
+import org.example.schoolmanagementsystemspring.textbook.TextBook;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * The SecondLevelCacheConfiguration class defines the regions of the Hibernate second-level cache,
+ * which keeps the reference data (schools, courses, textbooks and events) in memory.
+ * This data changes a few times a term, so it is read from the database once and then served from the cache
+ * until it is written or expires.
+ * The regions are Caffeine caches created through JCache, and Hibernate is configured to use this cache manager,
+ * failing on startup if an entity asks for a region that is not created here.
+ * The entity regions are bounded by the number of entries and expire after a configurable time.
+ * The update timestamps region, which Hibernate uses to invalidate cached queries when a table is written,
+ * is never evicted, so a cached query can never outlive an update of its tables.
+ * The hits and misses of each region are exported as "cache.gets" metrics tagged with the region name.
+ *
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+@Configuration
+public class SecondLevelCacheConfiguration {
+
+    private static final List<String> ENTITY_REGIONS = List.of(
+            School.class.getName(),
+            Course.class.getName(),
+            Course.class.getName() + ".textBooks",
+            TextBook.class.getName(),
+            Event.class.getName()
+    );
+
+    @Value("${entity-cache.maximum-size}")
+    private long maximumSize;
+
+    @Value("${entity-cache.expire-after-write}")
+    private Duration expireAfterWrite;
+
+    @Value("${entity-cache.query-maximum-size}")
+    private long queryMaximumSize;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(MeterRegistry meterRegistry) {
+        // a cache manager per application context, so the regions of two contexts never clash
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(URI.create("hibernate:" + UUID.randomUUID()), provider.getDefaultClassLoader());
+
+        for (String region : ENTITY_REGIONS)
+            monitor(meterRegistry, cacheManager.createCache(region, configuration(maximumSize, expireAfterWrite)));
+
+        monitor(meterRegistry, cacheManager.createCache(
+                RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                configuration(queryMaximumSize, expireAfterWrite)
+        ));
+        monitor(meterRegistry, cacheManager.createCache(
+                RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                configuration(null, null)
+        ));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheCustomizer(CacheManager entityCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+    }
+
+    private CaffeineConfiguration<Object, Object> configuration(Long maximumSize, Duration expireAfterWrite) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        if (maximumSize != null)
+            configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        if (expireAfterWrite != null)
+            configuration.setExpireAfterWrite(OptionalLong.of(expireAfterWrite.toNanos()));
+        return configuration;
+    }
+
+    private void monitor(MeterRegistry meterRegistry, Cache<Object, Object> cache) {
+        JCacheMetrics.monitor(meterRegistry, cache, Tags.of("cache.type", "hibernate"));
+    }
+}
@@ -7,6 +7,8 @@ import org.example.schoolmanagementsystemspring.student.entity.GradeLevel;
 import org.example.schoolmanagementsystemspring.student.entity.Student;
 import org.example.schoolmanagementsystemspring.teacher.entity.Teacher;
 import org.example.schoolmanagementsystemspring.textbook.TextBook;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedBy;
@@ -28,6 +30,7 @@ import java.util.List;
 @Builder
 @Entity
 @Table(name = "course")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @EntityListeners(AuditingEntityListener.class)
 public class Course {
 
@@ -71,6 +74,7 @@ public class Course {
     private List<Student> students;
 
     @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JoinTable(
             name = "course_textbook",
             joinColumns = @JoinColumn(name = "course_id"),
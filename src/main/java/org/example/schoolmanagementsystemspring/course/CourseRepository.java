@@ -1,9 +1,14 @@
 package org.example.schoolmanagementsystemspring.course;
 
+import jakarta.persistence.QueryHint;
+import org.example.schoolmanagementsystemspring.admin.dto.ResponseCourse;
+import org.example.schoolmanagementsystemspring.cache.ResourceVersion;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.lang.NonNull;
 
 import java.util.Optional;
@@ -11,6 +16,7 @@ import java.util.Optional;
 public interface CourseRepository extends JpaRepository<Course, Integer> {
     Page<Course> findByTeacher_EmailAndTeacher_IsEnabledTrue(String email, Pageable pageable);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("select c from Course c where c.courseCode = ?1")
     Optional<Course> findByCourseCode(@NonNull String courseCode);
 
@@ -22,4 +28,37 @@ public interface CourseRepository extends JpaRepository<Course, Integer> {
 
     @Query("select (count(c) > 0) from Course c where c.courseCode = ?1")
     boolean existsByCourseCode(@NonNull String courseCode);
+
+    /**
+     * The findCoursePage method selects a page of courses with their teacher and school in a single statement,
+     * instead of loading each course and its eager associations with a statement per row.
+     */
+    @Query(
+            value = """
+                    select new org.example.schoolmanagementsystemspring.admin.dto.ResponseCourse(
+                        c.id, c.courseName, c.courseDescription, c.preRequisites, c.room, c.courseCode, c.gradeLevel,
+                        t.id, t.firstName, t.lastName, t.email, t.department,
+                        s.id, s.name, s.email, s.zipCode, s.schoolType
+                    )
+                    from Course c left join c.teacher t left join c.school s
+                    """,
+            countQuery = "select count(c) from Course c"
+    )
+    Page<ResponseCourse> findCoursePage(Pageable pageable);
+
+    /**
+     * The findTextBooksVersion method computes the version of the list of textbooks of a course
+     * from their ids and audit columns, without loading the course or its textbooks.
+     * It is empty if the course does not exist.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("""
+            select new org.example.schoolmanagementsystemspring.cache.ResourceVersion(
+                count(t), sum(t.id), max(coalesce(t.lastModifiedAt, t.createdAt))
+            )
+            from Course c left join c.textBooks t
+            where c.courseCode = ?1
+            group by c.id
+            """)
+    Optional<ResourceVersion> findTextBooksVersion(@NonNull String courseCode);
 }
\ No newline at end of file
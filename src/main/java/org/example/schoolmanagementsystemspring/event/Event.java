@@ -3,6 +3,8 @@ package org.example.schoolmanagementsystemspring.event;
 import jakarta.persistence.*;
 import lombok.*;
 import org.example.schoolmanagementsystemspring.school.entity.School;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedBy;
@@ -25,6 +27,7 @@ import java.time.LocalDateTime;
 @Builder
 @Entity
 @Table(name = "school_events")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @EntityListeners(AuditingEntityListener.class)
 public class Event {
 
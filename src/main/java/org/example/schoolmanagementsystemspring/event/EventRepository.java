@@ -1,17 +1,36 @@
 package org.example.schoolmanagementsystemspring.event;
 
+import jakarta.persistence.QueryHint;
+import org.example.schoolmanagementsystemspring.cache.ResourceVersion;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.lang.NonNull;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface EventRepository extends JpaRepository<Event, Integer> {
     @Query("select e from Event e where e.school.id = ?1")
     Page<Event> findBySchool_Id(@NonNull Integer id, Pageable pageable);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("select e from Event e where e.school.id = ?1")
     List<Event> findBySchoolID(@NonNull Integer id);
+
+    /**
+     * The findFutureVersion method computes the version of the list of future events of a school
+     * from their ids and audit columns, without loading the events.
+     */
+    @Query("""
+            select new org.example.schoolmanagementsystemspring.cache.ResourceVersion(
+                count(e), sum(e.id), max(coalesce(e.lastModifiedAt, e.createdAt))
+            )
+            from Event e
+            where e.school.id = ?1 and e.start > ?2
+            """)
+    ResourceVersion findFutureVersion(@NonNull Integer schoolId, @NonNull LocalDateTime now);
 }
\ No newline at end of file
@@ -35,6 +35,10 @@ public enum BusinessErrorCodes {
     TEACHER_ALREADY_EXISTS(HttpStatus.CONFLICT, "Teacher already exists"),
     TEACHER_NOT_FOUND(HttpStatus.NOT_FOUND, "Teacher not found"),
     STUDENT_ALREADY_HAS_RESPONSIBLE(HttpStatus.CONFLICT, "Student already has responsable"),
+    RATE_LIMIT_EXCEEDED(HttpStatus.TOO_MANY_REQUESTS, "Too many requests"),
+    FILE_NOT_FOUND(HttpStatus.NOT_FOUND, "File not found"),
+    INVALID_FILE(HttpStatus.BAD_REQUEST, "Invalid file"),
+    SERVICE_BUSY(HttpStatus.SERVICE_UNAVAILABLE, "Service busy, please try again later"),
 
     ;
 
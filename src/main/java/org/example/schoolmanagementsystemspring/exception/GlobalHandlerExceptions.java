@@ -4,12 +4,17 @@ import jakarta.mail.MessagingException;
 import lombok.extern.slf4j.Slf4j;
 import org.example.schoolmanagementsystemspring.authentication.exception.InvalidTokenException;
 import org.example.schoolmanagementsystemspring.authentication.exception.TokenNotFoundException;
+import org.example.schoolmanagementsystemspring.authentication.exception.TooManyRequestsException;
 import org.example.schoolmanagementsystemspring.authentication.exception.UserAlreadyExistsException;
+import org.example.schoolmanagementsystemspring.config.ExecutorBusyException;
 import org.example.schoolmanagementsystemspring.school.exception.SchoolNotFoundException;
+import org.example.schoolmanagementsystemspring.storage.InvalidFileException;
+import org.example.schoolmanagementsystemspring.storage.StorageException;
 import org.example.schoolmanagementsystemspring.teacher.exception.StudentAlreadyHasResponsibleException;
 import org.example.schoolmanagementsystemspring.teacher.exception.TeacherAlreadyExistsException;
 import org.example.schoolmanagementsystemspring.teacher.exception.TeacherNotFoundException;
 import org.example.schoolmanagementsystemspring.user.exception.UserNotFoundException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.DisabledException;
@@ -159,6 +164,64 @@ public class GlobalHandlerExceptions {
                 );
     }
 
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ExceptionResponse> handleException(TooManyRequestsException ex) {
+        return ResponseEntity
+                .status(RATE_LIMIT_EXCEEDED.getHttpStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfter()))
+                .body(
+                        ExceptionResponse
+                                .builder()
+                                .errorCode(RATE_LIMIT_EXCEEDED.getHttpStatus().value())
+                                .description(RATE_LIMIT_EXCEEDED.getDescription())
+                                .error(ex.getMessage())
+                                .build()
+                );
+    }
+
+    @ExceptionHandler(StorageException.class)
+    public ResponseEntity<ExceptionResponse> handleException(StorageException ex) {
+        return ResponseEntity
+                .status(FILE_NOT_FOUND.getHttpStatus())
+                .body(
+                        ExceptionResponse
+                                .builder()
+                                .errorCode(FILE_NOT_FOUND.getHttpStatus().value())
+                                .description(FILE_NOT_FOUND.getDescription())
+                                .error(ex.getMessage())
+                                .build()
+                );
+    }
+
+    @ExceptionHandler(InvalidFileException.class)
+    public ResponseEntity<ExceptionResponse> handleException(InvalidFileException ex) {
+        return ResponseEntity
+                .status(INVALID_FILE.getHttpStatus())
+                .body(
+                        ExceptionResponse
+                                .builder()
+                                .errorCode(INVALID_FILE.getHttpStatus().value())
+                                .description(INVALID_FILE.getDescription())
+                                .error(ex.getMessage())
+                                .build()
+                );
+    }
+
+    @ExceptionHandler(ExecutorBusyException.class)
+    public ResponseEntity<ExceptionResponse> handleException(ExecutorBusyException ex) {
+        log.warn("Executor busy: {}", ex.getMessage());
+        return ResponseEntity
+                .status(SERVICE_BUSY.getHttpStatus())
+                .body(
+                        ExceptionResponse
+                                .builder()
+                                .errorCode(SERVICE_BUSY.getHttpStatus().value())
+                                .description(SERVICE_BUSY.getDescription())
+                                .error(ex.getMessage())
+                                .build()
+                );
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ExceptionResponse> handleException(MethodArgumentNotValidException ex) {
         Set<String> errors = new HashSet<>();
@@ -0,0 +1,81 @@
+package org.example.schoolmanagementsystemspring.mail;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * The EmailOutbox entity stores an email waiting to be sent.
+ * It is written in the same transaction as the data the email refers to, so an email is never lost
+ * if the application stops or the mail executor is full, and it is sent later by the EmailOutboxDispatcher.
+ * The idempotency key is unique, so the same email cannot be queued twice.
+ * Inline resources are stored as classpath locations.
+ *
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "email_outbox", indexes = @Index(name = "email_outbox_status_next_attempt_idx", columnList = "status, next_attempt_at"))
+@EntityListeners(AuditingEntityListener.class)
+public class EmailOutbox {
+
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    @Column(name = "idempotency_key", nullable = false, unique = true)
+    private String idempotencyKey;
+
+    @Column(name = "from_address", nullable = false)
+    private String from;
+
+    @Column(name = "to_address", nullable = false)
+    private String to;
+
+    @Column(name = "subject", nullable = false)
+    private String subject;
+
+    @Column(name = "template", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private EmailTemplate template;
+
+    @Column(name = "template_properties")
+    @JdbcTypeCode(SqlTypes.JSON)
+    private Map<String, Object> templateProperties;
+
+    @Column(name = "resources")
+    @JdbcTypeCode(SqlTypes.JSON)
+    private Map<String, String> resources;
+
+    @Column(name = "status", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private EmailOutboxStatus status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1024)
+    private String lastError;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    @CreatedDate
+    private LocalDateTime createdAt;
+}
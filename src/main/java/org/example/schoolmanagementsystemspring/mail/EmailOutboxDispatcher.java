@@ -0,0 +1,195 @@
+package org.example.schoolmanagementsystemspring.mail;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The EmailOutboxDispatcher class sends the emails stored in the outbox.
+ * It runs with a fixed delay and drains the outbox in batches, each batch in its own transaction.
+ * The emails of a batch are sent with a single call to the JavaMailSender, which sends them over one SMTP connection.
+ * An email that fails is retried with an exponential backoff, until the maximum number of attempts is reached.
+ * The rows of a batch are locked while it is sent, and rows locked by another node are skipped.
+ * The sent, retried and failed emails, the pending emails and the time spent per batch are exposed as metrics.
+ *
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EmailOutboxDispatcher {
+
+    @Value("${email.outbox.batch-size}")
+    private int batchSize;
+
+    @Value("${email.outbox.max-attempts}")
+    private int maxAttempts;
+
+    @Value("${email.outbox.backoff}")
+    private long backoff;
+
+    private final EmailOutboxRepository outboxRepository;
+
+    private final EmailService emailService;
+
+    private final JavaMailSender mailSender;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicLong pending = new AtomicLong();
+
+    private Counter sent;
+
+    private Counter retried;
+
+    private Counter failed;
+
+    private Timer batchTimer;
+
+    /**
+     * The init method registers the metrics of the outbox.
+     */
+    @PostConstruct
+    public void init() {
+        sent = Counter.builder("email.outbox.sent").description("Number of emails sent from the outbox").register(meterRegistry);
+        retried = Counter.builder("email.outbox.retried").description("Number of emails scheduled for another attempt").register(meterRegistry);
+        failed = Counter.builder("email.outbox.failed").description("Number of emails that reached the maximum number of attempts").register(meterRegistry);
+        batchTimer = Timer.builder("email.outbox.batch").description("Time spent sending a batch of emails").register(meterRegistry);
+        Gauge.builder("email.outbox.pending", pending, AtomicLong::get).description("Number of emails waiting to be sent").register(meterRegistry);
+    }
+
+    /**
+     * The dispatch method sends the due emails of the outbox, batch by batch, until no full batch is left.
+     */
+    @Scheduled(fixedDelayString = "${email.outbox.interval}")
+    public void dispatch() {
+        Integer count;
+        do {
+            count = transactionTemplate.execute(status -> {
+                Timer.Sample sample = Timer.start(meterRegistry);
+                int size = dispatchBatch();
+                sample.stop(batchTimer);
+                return size;
+            });
+        } while (count != null && count == batchSize);
+        pending.set(outboxRepository.countPending());
+    }
+
+    /**
+     * This method locks and sends the next batch of due emails.
+     * Emails that cannot be built are failed right away, the others are sent together.
+     *
+     * @return the number of emails in the batch.
+     */
+    private int dispatchBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailOutbox> batch = outboxRepository.findDue(now, PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) return 0;
+        Map<MimeMessage, EmailOutbox> messages = new IdentityHashMap<>();
+        for (EmailOutbox outbox : batch) {
+            try {
+                messages.put(emailService.createMessage(toEmail(outbox)), outbox);
+            } catch (Exception e) {
+                handleFailure(outbox, e, now);
+            }
+        }
+        if (messages.isEmpty()) return batch.size();
+        Map<Object, Exception> failures = new IdentityHashMap<>();
+        try {
+            mailSender.send(messages.keySet().toArray(MimeMessage[]::new));
+        } catch (MailSendException e) {
+            if (e.getFailedMessages().isEmpty())
+                messages.keySet().forEach(message -> failures.put(message, e));
+            else
+                failures.putAll(e.getFailedMessages());
+        } catch (Exception e) {
+            messages.keySet().forEach(message -> failures.put(message, e));
+        }
+        messages.forEach((message, outbox) -> {
+            Exception failure = failures.get(message);
+            if (failure != null) {
+                handleFailure(outbox, failure, now);
+                return;
+            }
+            outbox.setStatus(EmailOutboxStatus.SENT);
+            outbox.setAttempts(outbox.getAttempts() + 1);
+            outbox.setSentAt(now);
+            outbox.setLastError(null);
+            sent.increment();
+        });
+        log.info("Email outbox batch of {} emails dispatched, {} failed", batch.size(), failures.size());
+        return batch.size();
+    }
+
+    /**
+     * This method records a failed attempt to send an email.
+     * The email is retried after a backoff that doubles with each attempt, or failed if it reached the maximum number of attempts.
+     *
+     * @param outbox the email that failed.
+     * @param e      the cause of the failure.
+     * @param now    the date of the attempt.
+     */
+    private void handleFailure(EmailOutbox outbox, Exception e, LocalDateTime now) {
+        int attempts = outbox.getAttempts() + 1;
+        outbox.setAttempts(attempts);
+        String error = String.valueOf(e.getMessage());
+        outbox.setLastError(error.length() > 1024 ? error.substring(0, 1024) : error);
+        if (attempts >= maxAttempts) {
+            outbox.setStatus(EmailOutboxStatus.FAILED);
+            failed.increment();
+            log.error("Email {} to {} failed after {} attempts", outbox.getIdempotencyKey(), outbox.getTo(), attempts);
+            return;
+        }
+        long delay = backoff << Math.min(attempts - 1, 16);
+        outbox.setNextAttemptAt(now.plus(delay, ChronoUnit.MILLIS));
+        retried.increment();
+        log.warn("Email {} to {} failed, retrying in {} ms", outbox.getIdempotencyKey(), outbox.getTo(), delay);
+    }
+
+    /**
+     * This method converts an outbox row into an Email.
+     *
+     * @param outbox the outbox row.
+     * @return the Email to be sent.
+     */
+    private Email toEmail(EmailOutbox outbox) {
+        HashMap<String, Resource> resources = new HashMap<>();
+        if (outbox.getResources() != null)
+            outbox.getResources().forEach((key, path) -> resources.put(key, new ClassPathResource(path)));
+        return Email
+                .builder()
+                .from(outbox.getFrom())
+                .to(outbox.getTo())
+                .subject(outbox.getSubject())
+                .template(outbox.getTemplate())
+                .templateProperties(outbox.getTemplateProperties() == null ? new HashMap<>() : new HashMap<>(outbox.getTemplateProperties()))
+                .resources(resources)
+                .build();
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.schoolmanagementsystemspring.mail;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The EmailOutboxRepository interface is a Spring Data JPA repository for the EmailOutbox entity.
+ * It includes methods to check if an email was already queued and to lock the next batch of emails to send.
+ *
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    /**
+     * Check if an email with the given idempotency key was already queued.
+     *
+     * @param idempotencyKey the idempotency key of the email.
+     * @return a boolean indicating whether the email was already queued.
+     */
+    boolean existsByIdempotencyKey(String idempotencyKey);
+
+    /**
+     * Find which of the given idempotency keys were already queued, with a single query.
+     *
+     * @param idempotencyKeys the idempotency keys to check.
+     * @return the idempotency keys that were already queued.
+     */
+    @Query("select e.idempotencyKey from EmailOutbox e where e.idempotencyKey in :idempotencyKeys")
+    Set<String> findIdempotencyKeys(Collection<String> idempotencyKeys);
+
+    /**
+     * Find and lock the next pending emails whose next attempt is due.
+     * Rows locked by another node are skipped, so several nodes can drain the outbox at the same time.
+     *
+     * @param now      the current date.
+     * @param pageable the size of the batch.
+     * @return a List of EmailOutbox to send.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+            select e from EmailOutbox e
+            where e.status = org.example.schoolmanagementsystemspring.mail.EmailOutboxStatus.PENDING
+            and e.nextAttemptAt <= :now
+            order by e.id
+            """)
+    List<EmailOutbox> findDue(LocalDateTime now, Pageable pageable);
+
+    /**
+     * Count the pending emails.
+     *
+     * @return the number of pending emails.
+     */
+    @Query("select count(e) from EmailOutbox e where e.status = org.example.schoolmanagementsystemspring.mail.EmailOutboxStatus.PENDING")
+    long countPending();
+}
@@ -0,0 +1,12 @@
+package org.example.schoolmanagementsystemspring.mail;
+
+/**
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+public enum EmailOutboxStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
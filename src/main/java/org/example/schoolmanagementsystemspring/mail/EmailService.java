@@ -4,16 +4,29 @@ import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.lang.NonNull;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 import org.thymeleaf.context.Context;
 import org.thymeleaf.spring6.SpringTemplateEngine;
 
-import java.util.concurrent.CompletableFuture;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
@@ -21,8 +34,9 @@ import static org.springframework.mail.javamail.MimeMessageHelper.MULTIPART_MODE
 
 /**
  * The EmailService class is a service that handles the sending of emails.
- * It uses the JavaMailSender to send emails and the SpringTemplateEngine to process the email templates.
- * It provides a method for sending an email asynchronously.
+ * It uses the JavaMailSender to create the messages and the SpringTemplateEngine to process the email templates.
+ * Emails are queued in the outbox in the transaction of the caller, so an email is never lost,
+ * and the EmailOutboxDispatcher builds their messages with this service and sends them.
  *
  * @author FFreitas
  * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
@@ -35,54 +49,151 @@ public class EmailService {
 
     private final JavaMailSender mailSender;
     private final SpringTemplateEngine engine;
+    private final EmailOutboxRepository outboxRepository;
+
+    private final Map<String, InlineResource> inlineResources = new ConcurrentHashMap<>();
+
+    /**
+     * The enqueue method stores an email in the outbox, in the transaction of the caller.
+     * The email is sent later by the EmailOutboxDispatcher, so it is sent only if the transaction commits
+     * and it is not lost if the application stops before it is sent.
+     * If an email with the same idempotency key was already queued, it does nothing.
+     * Only classpath resources can be queued, other resources are ignored.
+     *
+     * @param email          the email to be sent.
+     * @param idempotencyKey the key that identifies the email.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(@NonNull Email email, @NonNull String idempotencyKey) {
+        if (outboxRepository.existsByIdempotencyKey(idempotencyKey)) {
+            log.warn("Email {} already queued", idempotencyKey);
+            return;
+        }
+        outboxRepository.save(toOutbox(email, idempotencyKey));
+    }
+
+    /**
+     * The enqueueAll method stores several emails in the outbox, in the transaction of the caller.
+     * The idempotency keys are checked with a single query and the emails are saved together,
+     * so the outbox rows can be written with batched inserts.
+     * Emails whose idempotency key was already queued are ignored.
+     *
+     * @param emails the emails to be sent, by idempotency key.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueAll(@NonNull Map<String, Email> emails) {
+        if (emails.isEmpty()) return;
+        Set<String> queued = outboxRepository.findIdempotencyKeys(emails.keySet());
+        if (!queued.isEmpty())
+            log.warn("{} emails already queued", queued.size());
+        List<EmailOutbox> outboxes = new ArrayList<>(emails.size());
+        emails.forEach((idempotencyKey, email) -> {
+            if (!queued.contains(idempotencyKey))
+                outboxes.add(toOutbox(email, idempotencyKey));
+        });
+        outboxRepository.saveAll(outboxes);
+    }
+
+    /**
+     * This method builds the outbox row of an email.
+     * Only classpath resources can be queued, other resources are ignored.
+     *
+     * @param email          the email to be sent.
+     * @param idempotencyKey the key that identifies the email.
+     * @return the outbox row, not yet saved.
+     */
+    private EmailOutbox toOutbox(Email email, String idempotencyKey) {
+        Map<String, String> resources = new HashMap<>();
+        if (email.resources() != null)
+            email.resources().forEach((key, resource) -> {
+                if (resource instanceof ClassPathResource classPathResource)
+                    resources.put(key, classPathResource.getPath());
+                else
+                    log.warn("Resource {} is not a classpath resource and cannot be queued", key);
+            });
+        return EmailOutbox
+                .builder()
+                .idempotencyKey(idempotencyKey)
+                .from(email.from())
+                .to(email.to())
+                .subject(email.subject())
+                .template(email.template())
+                .templateProperties(email.templateProperties())
+                .resources(resources)
+                .status(EmailOutboxStatus.PENDING)
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * The createMessage method builds the MimeMessage of an email.
+     * It sets the from, to, and subject fields, processes the email template and adds the inline resources.
+     * The templates are parsed once and cached by the template engine (spring.thymeleaf.cache),
+     * and classpath inline resources are read once and kept in memory, so building a batch of messages
+     * only renders the template variables and assembles the MIME parts.
+     *
+     * @param email the email to be built.
+     * @return the MimeMessage ready to be sent.
+     * @throws MessagingException if the message cannot be built.
+     */
+    public MimeMessage createMessage(@NonNull Email email) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, MULTIPART_MODE_MIXED, UTF_8.name());
+
+        helper.setFrom(email.from());
+        helper.setTo(email.to());
+        helper.setSubject(email.subject());
+
+        Context context = new Context();
+        context.setVariables(email.templateProperties());
+
+        String msg = engine.process(email.template().getTemplateName(), context);
+
+        helper.setText(msg, true);
+
+        BiConsumer<String, Resource> handleInlineResource = (key, resource) -> {
+            try {
+                InlineResource inline = loadInlineResource(resource);
+                if (inline != null)
+                    helper.addInline(key, inline.content(), inline.contentType());
+            } catch (MessagingException e) {
+                log.error("An error occurred while adding the inline resource to the email");
+            }
+        };
+
+        if (email.resources() != null)
+            email.resources().forEach(handleInlineResource);
+
+        return message;
+    }
 
     /**
-     * The sendEmail method sends an email asynchronously.
-     * It creates a MimeMessage, sets the from, to, and subject fields, processes the email template, and sends the email.
-     * If an error occurs while sending the email, it logs the error and returns a failed future.
-     * Otherwise, it returns a completed future with the value true.
+     * This method returns the content of an inline resource.
+     * Classpath resources never change, so they are read once and reused by every message.
      *
-     * @param email the email to be sent.
-     * @return a CompletableFuture indicating the result of the email sending operation.
+     * @param resource the resource to be loaded.
+     * @return the content and the content type of the resource, or null if the resource does not exist or cannot be read.
      */
-    @Async
-    public CompletableFuture<Boolean> sendEmail(@NonNull Email email) {
-        log.info("Execution Thread: {}", Thread.currentThread().getName());
-        log.info("Sending email to {}", email.to());
-
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, MULTIPART_MODE_MIXED, UTF_8.name());
-
-            helper.setFrom(email.from());
-            helper.setTo(email.to());
-            helper.setSubject(email.subject());
-
-            Context context = new Context();
-            context.setVariables(email.templateProperties());
-
-            String msg = engine.process(email.template().getTemplateName(), context);
-
-            helper.setText(msg, true);
-
-            BiConsumer<String, Resource> handleInlineResource = (key, resource) -> {
-                try {
-                    if (resource != null && resource.exists())
-                        helper.addInline(key, resource);
-                } catch (MessagingException e) {
-                    log.error("An error occurred while adding the inline resource to the email");
-                }
-            };
-
-            if (email.resources() != null)
-                email.resources().forEach(handleInlineResource);
-
-            mailSender.send(message);
-        } catch (Exception e) {
-            log.error("An error occurred while sending the email to {}", email.to());
-            log.error("Error message: {}", e.getMessage());
-            return CompletableFuture.failedFuture(e);
+    private InlineResource loadInlineResource(Resource resource) {
+        if (resource == null) return null;
+        if (resource instanceof ClassPathResource classPathResource)
+            return inlineResources.computeIfAbsent(classPathResource.getPath(), path -> readInlineResource(resource));
+        return readInlineResource(resource);
+    }
+
+    private InlineResource readInlineResource(Resource resource) {
+        if (!resource.exists()) return null;
+        try (InputStream inputStream = resource.getInputStream()) {
+            String contentType = MediaTypeFactory
+                    .getMediaType(resource)
+                    .map(MediaType::toString)
+                    .orElse(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+            return new InlineResource(new ByteArrayResource(inputStream.readAllBytes()), contentType);
+        } catch (IOException e) {
+            log.error("An error occurred while reading the inline resource {}", resource.getDescription());
+            return null;
         }
-        return CompletableFuture.completedFuture(true);
     }
-}
\ No newline at end of file
+
+    private record InlineResource(ByteArrayResource content, String contentType) { }
+}
@@ -1,6 +1,9 @@
 package org.example.schoolmanagementsystemspring.parent.repository;
 
+import org.example.schoolmanagementsystemspring.admin.dto.ResponseParent;
 import org.example.schoolmanagementsystemspring.parent.entity.Parent;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.lang.NonNull;
@@ -16,4 +19,20 @@ public interface ParentRepository extends JpaRepository<Parent, Integer> {
 
     @Query("select p from Parent p where p.email = ?1 and p.isEnabled = true")
     Optional<Parent> findByEmailAndIsEnabledTrue(@NonNull String email);
+
+    /**
+     * The findParentPage method selects a page of parents with the student they are responsible for in a single statement,
+     * instead of loading each parent and its eager associations with a statement per row.
+     */
+    @Query(
+            value = """
+                    select new org.example.schoolmanagementsystemspring.admin.dto.ResponseParent(
+                        p.id, p.firstName, p.lastName, p.email, p.description, p.isEnabled, p.type, p.occupation,
+                        s.id, s.firstName, s.lastName, s.email
+                    )
+                    from Parent p left join p.studentResponsible s
+                    """,
+            countQuery = "select count(p) from Parent p"
+    )
+    Page<ResponseParent> findParentPage(Pageable pageable);
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.schoolmanagementsystemspring.authentication.exception.UserAlreadyExistsException;
 import org.example.schoolmanagementsystemspring.authentication.service.AuthenticationService;
+import org.example.schoolmanagementsystemspring.authentication.service.PasswordHashService;
 import org.example.schoolmanagementsystemspring.parent.dto.ParentResponse;
 import org.example.schoolmanagementsystemspring.parent.dto.RequestParent;
 import org.example.schoolmanagementsystemspring.parent.dto.StudentResponse;
@@ -17,9 +18,12 @@ import org.example.schoolmanagementsystemspring.teacher.entity.Teacher;
 import org.example.schoolmanagementsystemspring.user.entity.Role;
 import org.example.schoolmanagementsystemspring.user.exception.UserNotFoundException;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
 
 @Slf4j
 @Service
@@ -28,11 +32,23 @@ import org.springframework.transaction.annotation.Transactional;
 public class ParentServiceImpl implements ParentService {
 
     private final ParentRepository repository;
-    private final PasswordEncoder encoder;
+    private final PasswordHashService passwordHashService;
+    private final TransactionTemplate transactionTemplate;
     private final StudentRepository studentRepository;
     private final AuthenticationService authenticationService;
 
+    /**
+     * The register method registers a new parent.
+     * The password is hashed before the transaction starts, so no database connection is held while hashing,
+     * and the parent is saved with its activation code in a single transaction.
+     *
+     * @param request the request containing the parent's information
+     * @throws UserAlreadyExistsException if the parent already exists
+     * @throws UserNotFoundException      if the user is not found
+     * @throws SchoolNotFoundException    if the school is not found
+     */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void register(RequestParent request) throws UserAlreadyExistsException, UserNotFoundException, SchoolNotFoundException {
         log.info("Registering parent: {}", request.email());
 
@@ -55,14 +71,13 @@ public class ParentServiceImpl implements ParentService {
                 .isEnabled(false)
                 .build();
 
-        parent.setPassword(encoder.encode(parent.getPassword()));
-
-        repository.save(parent);
+        parent.setPassword(passwordHashService.encode(parent.getPassword()));
 
-        authenticationService.generateActivationCode(request.email());
+        transactionTemplate.executeWithoutResult(status -> authenticationService.generateActivationCodes(List.of(repository.save(parent))));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ParentResponse getParentInformation(Authentication authentication) throws UserNotFoundException {
         log.info("Getting parent {} information", authentication.getName());
 
@@ -125,6 +140,7 @@ public class ParentServiceImpl implements ParentService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public StudentResponse getStudentFor(Authentication authentication) throws UserNotFoundException {
         log.info("Getting student for parent {}", authentication.getName());
 
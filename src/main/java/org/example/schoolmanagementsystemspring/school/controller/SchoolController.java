@@ -5,13 +5,17 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.schoolmanagementsystemspring.cache.CachedResource;
+import org.example.schoolmanagementsystemspring.cache.ConditionalResponseService;
 import org.example.schoolmanagementsystemspring.school.dto.EventResponse;
 import org.example.schoolmanagementsystemspring.school.dto.SchoolResponse;
 import org.example.schoolmanagementsystemspring.school.service.SchoolService;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -28,30 +32,47 @@ public class SchoolController {
 
     private final SchoolService schoolService;
 
+    private final ConditionalResponseService conditionalResponseService;
+
     /**
      * This method retrieves all schools.
+     * The schools are only loaded if the client does not have the current version of the list.
      *
-     * @return a list of all schools
+     * @param request the web request
+     * @return a list of all schools, or 304 Not Modified
      */
     @Operation(summary = "Get all schools", description = "This operation retrieves all schools and it doesn't require any authentication.")
     @GetMapping("/all")
-    public List<SchoolResponse> getSchools() {
+    public ResponseEntity<List<SchoolResponse>> getSchools(WebRequest request) {
         log.info("Getting all schools");
-        return schoolService.getSchools();
+        return conditionalResponseService.respond(
+                request,
+                CachedResource.SCHOOLS,
+                schoolService.getSchoolsVersion(),
+                schoolService::getSchools
+        );
     }
 
     /**
      * This method retrieves all future events associated with a specific school.
      * It uses the school id to find the events.
      *
+     * The events are only loaded if the client does not have the current version of the list.
+     *
      * @param schoolId the id of the school
-     * @return a list of future events associated with the school
+     * @param request  the web request
+     * @return a list of future events associated with the school, or 304 Not Modified
      */
     @SecurityRequirement(name = "JSON Web Token (JWT)")
     @Operation(summary = "Get all future events by school id", description = "This operation retrieves all future events by school id.")
     @GetMapping("/{schoolId}/events/future")
-    public List<EventResponse> getFutureEvents(@PathVariable Integer schoolId) {
+    public ResponseEntity<List<EventResponse>> getFutureEvents(@PathVariable Integer schoolId, WebRequest request) {
         log.info("Getting all future events by school id: {}", schoolId);
-        return schoolService.getFutureEvents(schoolId);
+        return conditionalResponseService.respond(
+                request,
+                CachedResource.FUTURE_EVENTS,
+                schoolService.getFutureEventsVersion(schoolId),
+                () -> schoolService.getFutureEvents(schoolId)
+        );
     }
 }
\ No newline at end of file
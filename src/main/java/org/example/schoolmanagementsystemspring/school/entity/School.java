@@ -10,6 +10,8 @@ import org.example.schoolmanagementsystemspring.course.Course;
 import org.example.schoolmanagementsystemspring.event.Event;
 import org.example.schoolmanagementsystemspring.student.entity.Student;
 import org.example.schoolmanagementsystemspring.teacher.entity.Teacher;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedBy;
@@ -32,6 +34,7 @@ import java.util.List;
 @SuperBuilder
 @Entity
 @Table(name = "schools")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @EntityListeners(AuditingEntityListener.class)
 public class School extends SchoolInformation{
 
@@ -1,14 +1,42 @@
 package org.example.schoolmanagementsystemspring.school.repository;
 
+import jakarta.persistence.QueryHint;
+import org.example.schoolmanagementsystemspring.cache.ResourceVersion;
 import org.example.schoolmanagementsystemspring.school.entity.School;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface SchoolRepository extends JpaRepository<School, Integer> {
 
     @Query("select (count(s) > 0) from School s where s.email = ?1")
     boolean existsByEmail(@NonNull String email);
+
+    /**
+     * The findAll method is cached in the query cache, so the list of schools is read from memory
+     * until a school is written.
+     */
+    @Override
+    @NonNull
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<School> findAll();
+
+    /**
+     * The findVersion method computes the version of the list of schools from their ids and audit columns,
+     * without loading the schools.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("""
+            select new org.example.schoolmanagementsystemspring.cache.ResourceVersion(
+                count(s), sum(s.id), max(coalesce(s.lastModifiedAt, s.createdAt))
+            )
+            from School s
+            """)
+    ResourceVersion findVersion();
 }
\ No newline at end of file
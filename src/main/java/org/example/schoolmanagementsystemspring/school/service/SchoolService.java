@@ -1,5 +1,6 @@
 package org.example.schoolmanagementsystemspring.school.service;
 
+import org.example.schoolmanagementsystemspring.cache.ResourceVersion;
 import org.example.schoolmanagementsystemspring.school.dto.EventResponse;
 import org.example.schoolmanagementsystemspring.school.dto.SchoolResponse;
 
@@ -15,6 +16,10 @@ public interface SchoolService {
     // Anyone
     List<SchoolResponse> getSchools();
 
+    ResourceVersion getSchoolsVersion();
+
     //Authenticated
     List<EventResponse> getFutureEvents(Integer schoolId);
+
+    ResourceVersion getFutureEventsVersion(Integer schoolId);
 }
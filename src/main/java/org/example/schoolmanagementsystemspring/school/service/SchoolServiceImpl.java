@@ -2,6 +2,7 @@ package org.example.schoolmanagementsystemspring.school.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.schoolmanagementsystemspring.cache.ResourceVersion;
 import org.example.schoolmanagementsystemspring.event.Event;
 import org.example.schoolmanagementsystemspring.event.EventRepository;
 import org.example.schoolmanagementsystemspring.school.dto.EventResponse;
@@ -25,7 +26,7 @@ import java.util.function.Predicate;
 @Slf4j
 @Service
 @RequiredArgsConstructor
-@Transactional
+@Transactional(readOnly = true)
 public class SchoolServiceImpl implements SchoolService {
 
     private final SchoolRepository repository;
@@ -48,6 +49,16 @@ public class SchoolServiceImpl implements SchoolService {
                 .toList();
     }
 
+    /**
+     * This method computes the version of the list of schools, without loading the schools.
+     *
+     * @return the version of the list of schools
+     */
+    @Override
+    public ResourceVersion getSchoolsVersion() {
+        return repository.findVersion();
+    }
+
     /**
      * This method retrieves all future events associated with a specific school.
      * It uses the school id to find the events.
@@ -65,4 +76,16 @@ public class SchoolServiceImpl implements SchoolService {
                 .map(eventResponseMapper)
                 .toList();
     }
+
+    /**
+     * This method computes the version of the list of future events associated with a specific school,
+     * without loading the events.
+     *
+     * @param schoolId the id of the school
+     * @return the version of the list of future events associated with the school
+     */
+    @Override
+    public ResourceVersion getFutureEventsVersion(Integer schoolId) {
+        return eventRepository.findFutureVersion(schoolId, LocalDateTime.now());
+    }
 }
@@ -0,0 +1,163 @@
+package org.example.schoolmanagementsystemspring.storage;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * The FileResponseWriter class writes a stored file or a thumbnail to an HTTP response.
+ * It answers 304 Not Modified to conditional requests matching the entity tag or the last modification time of the file,
+ * and 206 Partial Content to requests with a single byte range.
+ * When the connector supports it, the file is sent with sendfile, so its content is copied by the kernel
+ * without passing through the application, otherwise it is transferred from a FileChannel to the response.
+ *
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+@Slf4j
+@Component
+public class FileResponseWriter {
+
+    static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    /**
+     * The write method writes a stored file to an HTTP response.
+     *
+     * @param file      the file to be written.
+     * @param mediaType the media type of the file.
+     * @param request   the HTTP request.
+     * @param response  the HTTP response.
+     * @throws IOException if an I/O error occurs while writing the file.
+     */
+    public void write(@NonNull StoredFile file, @NonNull MediaType mediaType, @NonNull HttpServletRequest request, @NonNull HttpServletResponse response) throws IOException {
+        long[] range = prepare(file.eTag(), file.lastModified(), file.length(), mediaType, request, response);
+        if (range == null)
+            return;
+        long start = range[0];
+        long end = range[1];
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.path().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file.path(), StandardOpenOption.READ)) {
+            WritableByteChannel output = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position <= end) {
+                long transferred = channel.transferTo(position, end - position + 1, output);
+                if (transferred <= 0)
+                    throw new IOException("File truncated while writing: " + file.getFilename());
+                position += transferred;
+            }
+        }
+    }
+
+    /**
+     * The write method writes a thumbnail to an HTTP response, from memory or from its file.
+     *
+     * @param thumbnail the thumbnail to be written.
+     * @param mediaType the media type of the thumbnail.
+     * @param request   the HTTP request.
+     * @param response  the HTTP response.
+     * @throws IOException if an I/O error occurs while writing the thumbnail.
+     */
+    public void write(@NonNull Thumbnail thumbnail, @NonNull MediaType mediaType, @NonNull HttpServletRequest request, @NonNull HttpServletResponse response) throws IOException {
+        if (thumbnail.file() != null) {
+            write(thumbnail.file(), mediaType, request, response);
+            return;
+        }
+        byte[] content = thumbnail.content();
+        long[] range = prepare(thumbnail.eTag(), thumbnail.lastModified(), content.length, mediaType, request, response);
+        if (range == null)
+            return;
+        response.getOutputStream().write(content, (int) range[0], (int) (range[1] - range[0] + 1));
+    }
+
+    /**
+     * The prepare method answers the conditional and range headers of a request and sets the headers of the response.
+     *
+     * @return the first and last positions of the content to be written, or null if the response is complete.
+     */
+    private long[] prepare(String eTag, long lastModified, long length, MediaType mediaType, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (new ServletWebRequest(request, response).checkNotModified(eTag, lastModified))
+            return null;
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        response.setContentType(mediaType.toString());
+
+        long start = 0;
+        long end = length - 1;
+        HttpRange range = range(eTag, lastModified, request);
+        if (range != null) {
+            try {
+                start = range.getRangeStart(length);
+                end = range.getRangeEnd(length);
+            } catch (IllegalArgumentException e) {
+                start = length;
+            }
+            if (start >= length || start > end) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return null;
+            }
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+
+        if (HttpMethod.HEAD.matches(request.getMethod()) || count == 0)
+            return null;
+        return new long[]{start, end};
+    }
+
+    /**
+     * The range method reads the byte range requested.
+     * Requests with several ranges, or with an If-Range precondition that does not match the file,
+     * receive the whole file, as allowed by RFC 9110.
+     */
+    private HttpRange range(String eTag, long lastModified, HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        if (header == null)
+            return null;
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !matches(ifRange, eTag, lastModified, request))
+            return null;
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(header);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            log.debug("Ignoring invalid range: {}", header);
+            return null;
+        }
+    }
+
+    private boolean matches(String ifRange, String eTag, long lastModified, HttpServletRequest request) {
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/"))
+            return ifRange.equals(eTag);
+        return request.getDateHeader(HttpHeaders.IF_RANGE) == lastModified / 1000 * 1000;
+    }
+}
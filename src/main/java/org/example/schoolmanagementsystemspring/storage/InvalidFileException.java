@@ -0,0 +1,16 @@
+package org.example.schoolmanagementsystemspring.storage;
+
+/**
+ * The InvalidFileException class is thrown when the content of a file to be stored is rejected,
+ * because it is empty or is not of the type accepted by the storage.
+ *
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+public class InvalidFileException extends StorageException {
+
+    public InvalidFileException(String message) {
+        super(message);
+    }
+}
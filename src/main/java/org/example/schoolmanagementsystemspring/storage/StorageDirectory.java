@@ -1,23 +1,14 @@
 package org.example.schoolmanagementsystemspring.storage;
 
-import org.springframework.beans.factory.annotation.Value;
-
+/**
+ * The StorageDirectory enum represents the directories of the storage.
+ * The location of each directory is configured in the application properties and resolved by the StorageServiceImpl.
+ *
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
 public enum StorageDirectory {
     PROFILE_IMAGE,
     TEXTBOOK_COVER
-    ;
-
-    @Value("${storage.profile-directory}")
-    private String profileDirectory;
-
-    @Value("${storage.book-covers-directory}")
-    private String bookCoversDirectory;
-
-    public String getDirectory() {
-        return switch (this) {
-            case PROFILE_IMAGE -> profileDirectory;
-            case TEXTBOOK_COVER -> bookCoversDirectory;
-        };
-    }
-
 }
@@ -0,0 +1,19 @@
+package org.example.schoolmanagementsystemspring.storage;
+
+/**
+ * The StorageMode enum represents how the files of the storage are named.
+ * In the NAMED mode, each upload is stored under the name given by the caller,
+ * and the file is deleted when it is released.
+ * In the CONTENT_ADDRESSED mode, each upload is stored under the hash of its content,
+ * so identical uploads share a single file, whose references are counted in the database
+ * and which is deleted by the garbage collection once it has no references.
+ * NAMED is the default, and CONTENT_ADDRESSED is opt-in, since it needs the storage_blob table.
+ *
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+public enum StorageMode {
+    NAMED,
+    CONTENT_ADDRESSED
+}
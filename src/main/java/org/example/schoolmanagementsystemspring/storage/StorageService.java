@@ -1,10 +1,9 @@
 package org.example.schoolmanagementsystemspring.storage;
 
-import org.springframework.core.io.Resource;
 import org.springframework.lang.NonNull;
-import org.springframework.scheduling.annotation.Async;
 
-import java.util.concurrent.CompletableFuture;
+import java.io.IOException;
+import java.io.InputStream;
 
 /**
  * @author FFreitas
@@ -13,10 +12,11 @@ import java.util.concurrent.CompletableFuture;
  */
 public interface StorageService {
 
-    @Async
-    CompletableFuture<Void> store(@NonNull String fileName, @NonNull byte[] content, @NonNull StorageDirectory directory);
+    String store(@NonNull String fileName, @NonNull InputStream content, @NonNull StorageDirectory directory) throws IOException;
 
-    Resource loadResource(String fileName, StorageDirectory directory);
+    void release(String fileName, @NonNull StorageDirectory directory);
+
+    StoredFile loadFile(String fileName, StorageDirectory directory);
 
     void delete(String fileName, StorageDirectory directory);
 }
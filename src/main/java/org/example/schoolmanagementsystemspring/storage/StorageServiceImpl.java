@@ -1,20 +1,44 @@
 package org.example.schoolmanagementsystemspring.storage;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.lang.NonNull;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.FileSystemUtils;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
-import java.util.Objects;
-import java.util.concurrent.CompletableFuture;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 /**
  * The StorageServiceImpl class is a service that handles the storage of profile images.
@@ -22,7 +46,10 @@ import java.util.concurrent.CompletableFuture;
  * It provides methods for storing, loading, and deleting profile images.
  * It uses the @Value annotation to inject the profile directory from the application properties.
  * It uses the @PostConstruct annotation to initialize the root location of the profile images.
- * It uses the @Async annotation to perform the storeProfileImage operation asynchronously.
+ * The files are written from a stream through a temporary file, so an upload never holds the whole file in memory.
+ * The metadata of the loaded files is cached, so repeated downloads do not query the file system.
+ * In the content-addressed mode, the files are named by the hash of their content and their references are counted,
+ * so an identical upload only adds a reference, and the files without references are garbage-collected in the background.
  *
  * @author FFreitas
  * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
@@ -30,94 +57,180 @@ import java.util.concurrent.CompletableFuture;
  */
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class StorageServiceImpl implements StorageService {
 
+    @Value("${storage.profile-directory}")
+    private String profileDirectory;
+
+    @Value("${storage.book-covers-directory}")
+    private String bookCoversDirectory;
+
+    @Value("${storage.metadata-cache.maximum-size}")
+    private long maximumSize;
+
+    @Value("${storage.metadata-cache.expire-after-write}")
+    private Duration expireAfterWrite;
+
+    @Value("${storage.mode}")
+    private StorageMode mode;
+
+    @Value("${storage.garbage-collection.grace-period}")
+    private Duration gracePeriod;
+
+    @Value("${storage.garbage-collection.batch-size}")
+    private int batchSize;
+
+    private final StoredBlobRepository storedBlobRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private Cache<Path, StoredFile> files;
+
+    private static final Pattern CONTENT_ADDRESSED_NAME = Pattern.compile("[0-9a-f]{64}\\.png");
+
+    private static final String TEMPORARY_PREFIX = ".upload-";
+
+    // Every file of the storage is a PNG image, see https://www.w3.org/TR/png/#5PNG-file-signature
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
     /**
      * The init method initializes the root location of the profile images.
      * It is called after the construction of the StorageServiceImpl object.
      */
     @PostConstruct
     public void init() {
-        log.info("Storage Service initialized ...");
+        files = Caffeine
+                .newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+        log.info("Storage Service initialized in {} mode ...", mode);
     }
 
     /**
-     * The storeProfileImage method stores a profile image.
-     * It checks if the content is empty, resolves the file path, checks if the file is within the current directory,
-     * creates the directory for the file if it doesn't exist, and writes the content to the file.
-     * If an error occurs, it logs the error and returns a failed future.
-     * Otherwise, it returns a completed future with the value null.
+     * The store method stores a file from a stream.
+     * The content is copied in fixed size chunks to a temporary file in the destination directory,
+     * while its checksum is computed and its signature is checked against the PNG magic bytes,
+     * so the memory used does not depend on the size of the file.
+     * The temporary file is then atomically moved to its destination, so a file is never read partially written.
+     * In the content-addressed mode, the destination is named by the checksum and a reference to it is added
+     * before the move, in the same transaction; if the file already exists, the temporary file is simply discarded.
+     * If an error occurs, it logs the error, deletes the temporary file and throws an exception.
      *
-     * @param fileName the name of the file to be stored.
-     * @param content  the content of the file to be stored.
-     * @return a CompletableFuture indicating the result of the file storing operation.
+     * @param fileName  the name of the file to be stored, used in the named mode.
+     * @param content   the content of the file to be stored.
+     * @param directory the directory of the file.
+     * @return the name the file was stored under.
+     * @throws InvalidFileException if the content is empty or is not a PNG image.
+     * @throws IOException          if an I/O error occurs while writing the file.
      */
     @Override
-    @Async
-    public CompletableFuture<Void> store(@NonNull String fileName, @NonNull byte[] content, @NonNull StorageDirectory directory) {
-        try {
+    public String store(@NonNull String fileName, @NonNull InputStream content, @NonNull StorageDirectory directory) throws IOException {
+        log.info("Storing file: {}", fileName);
 
-            log.info("Storing file: {}", fileName);
+        Path rootLocation = root(directory);
+        Path namedFile = mode == StorageMode.NAMED ? resolve(fileName, directory) : null;
 
-            var rootLocation = Paths.get(directory.getDirectory());
-
-            // Check if the content is empty
-            if (content.length == 0) {
-                log.error("Failed to store empty file");
-                throw new StorageException("Failed to store empty file");
-            }
+        // If the directory for the file doesn't exist, create it
+        Files.createDirectories(rootLocation);
 
-            // Resolve the file path and normalize it to an absolute path
-            Path destinationFile = rootLocation.resolve(Paths.get(Objects.requireNonNull(fileName)))
-                    .normalize().toAbsolutePath();
+        Path temporaryFile = Files.createTempFile(rootLocation, TEMPORARY_PREFIX, ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            try (InputStream input = new DigestInputStream(content, digest);
+                 OutputStream output = Files.newOutputStream(temporaryFile, StandardOpenOption.WRITE)) {
 
-            // Check if the file is within the current directory
-            if (!destinationFile.getParent().equals(rootLocation.toAbsolutePath())) {
-                log.error("Cannot store file outside current directory");
-                throw new StorageException("Cannot store file outside current directory");
+                // Check the signature of the content before writing it
+                byte[] signature = input.readNBytes(PNG_SIGNATURE.length);
+                if (signature.length == 0)
+                    throw new InvalidFileException("Failed to store empty file");
+                if (!Arrays.equals(signature, PNG_SIGNATURE))
+                    throw new InvalidFileException("Failed to store file with invalid content. Only PNG files are allowed.");
+                output.write(signature);
+                input.transferTo(output);
             }
+            String checksum = HexFormat.of().formatHex(digest.digest());
 
-            // If the directory for the file doesn't exist, create it
-            Files.createDirectories(destinationFile.getParent());
-
-            // Write the content to the file
-            Files.write(destinationFile, content, StandardOpenOption.CREATE);
-
-            log.info("File stored: {}", fileName);
+            if (namedFile != null) {
+                Files.move(temporaryFile, namedFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                files.invalidate(namedFile);
+                log.info("File stored: {} (sha-256 {})", fileName, checksum);
+                return fileName;
+            }
 
-            // Return a CompletableFuture that is completed when the file is stored
-            return CompletableFuture.completedFuture(null);
-        } catch (Exception e) {
+            String blobName = checksum + ".png";
+            Path destinationFile = resolve(blobName, directory);
+            boolean created;
+            try {
+                created = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                    storedBlobRepository.retain(directory.name(), blobName, LocalDateTime.now());
+                    return moveIfAbsent(temporaryFile, destinationFile);
+                }));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            log.info("File {}: {} (sha-256 {})", created ? "stored" : "deduplicated", fileName, checksum);
+            return blobName;
+        } catch (IOException | RuntimeException e) {
             log.error("Error storing file: {}", e.getMessage());
-            return CompletableFuture.failedFuture(e);
+            throw e;
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    /**
+     * The release method removes a reference to a file, when it is replaced or no longer used.
+     * In the named mode, the file is deleted once the current transaction commits.
+     * In the content-addressed mode, its reference count is decremented in the current transaction,
+     * and the file is deleted by the garbage collection once it has no references.
+     *
+     * @param fileName  the name of the file.
+     * @param directory the directory of the file.
+     */
+    @Override
+    public void release(String fileName, @NonNull StorageDirectory directory) {
+        if (fileName == null || fileName.isBlank())
+            return;
+        if (mode == StorageMode.CONTENT_ADDRESSED) {
+            if (CONTENT_ADDRESSED_NAME.matcher(fileName).matches())
+                storedBlobRepository.release(new StoredBlobId(directory, fileName), LocalDateTime.now());
+            return;
         }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            delete(fileName, directory);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                delete(fileName, directory);
+            }
+        });
     }
 
     /**
-     * The loadProfileImageResource method loads a profile image resource.
-     * It resolves the file path, checks if the resource exists or is readable, and returns the resource.
+     * The loadFile method loads the metadata of a file.
+     * It resolves the file path, checks if the file is within the directory and reads its attributes with a single call,
+     * which is cached until the file is stored again or deleted.
      * If an error occurs, it logs the error and throws a StorageException.
      *
-     * @param fileName the name of the file to be loaded.
-     * @return a Resource object representing the loaded profile image resource.
-     * @throws StorageException if an error occurs while loading the file.
+     * @param fileName  the name of the file to be loaded.
+     * @param directory the directory of the file.
+     * @return a StoredFile object representing the loaded file.
+     * @throws StorageException if the file does not exist or cannot be read.
      */
     @Override
-    public Resource loadResource(String fileName, StorageDirectory directory) {
+    public StoredFile loadFile(String fileName, StorageDirectory directory) {
+        if (fileName == null || fileName.isBlank())
+            throw new StorageException("Could not read file: " + fileName);
+        Path file = resolve(fileName, directory);
         try {
-            var rootLocation = Paths.get(directory.getDirectory());
-            Path file = rootLocation.resolve(fileName)
-                    .normalize().toAbsolutePath();
-            Resource resource = new UrlResource(file.toUri());
-            if (resource.exists() || resource.isReadable()) {
-                return resource;
-            } else {
-                log.error("Could not read file: {}", fileName);
-                throw new StorageException("Could not read file: " + fileName);
-            }
-        } catch (Exception e) {
-            log.error("Error loading file: {}", e.getMessage());
-            throw new StorageException("Error loading file: " + e.getMessage());
+            return files.get(file, this::readAttributes);
+        } catch (UncheckedIOException e) {
+            log.error("Could not read file: {}", fileName);
+            throw new StorageException("Could not read file: " + fileName, e.getCause());
         }
     }
 
@@ -129,7 +242,143 @@ public class StorageServiceImpl implements StorageService {
      */
     @Override
     public void delete(String fileName, StorageDirectory directory) {
-        var rootLocation = Paths.get(directory.getDirectory());
-        FileSystemUtils.deleteRecursively(rootLocation.resolve(fileName).toFile());
+        Path file = resolve(fileName, directory);
+        FileSystemUtils.deleteRecursively(file.toFile());
+        files.invalidate(file);
+    }
+
+    /**
+     * The collectGarbage method deletes the files of the content-addressed storage that are no longer used.
+     * It is scheduled to run with a fixed delay after the previous run.
+     * A file is deleted if it has had no references for the grace period, its row being deleted in the same transaction,
+     * so an upload of the same content waits for the deletion and then stores the file again.
+     * Content-addressed files without a row, left by an upload whose transaction failed, are given a row without references,
+     * so they are deleted by a later run, and temporary files older than the grace period are deleted.
+     */
+    @Scheduled(fixedDelayString = "${storage.garbage-collection.interval}", initialDelayString = "${storage.garbage-collection.interval}")
+    public void collectGarbage() {
+        if (mode != StorageMode.CONTENT_ADDRESSED)
+            return;
+        LocalDateTime before = LocalDateTime.now().minus(gracePeriod);
+        for (StorageDirectory directory : StorageDirectory.values()) {
+            try {
+                int deleted = collectUnreferenced(directory, before) + collectOrphans(directory, Instant.now().minus(gracePeriod));
+                if (deleted > 0)
+                    log.info("Deleted {} unused files from {}", deleted, directory);
+            } catch (IOException | RuntimeException e) {
+                log.error("Error collecting unused files from {}: {}", directory, e.getMessage());
+            }
+        }
+    }
+
+    private int collectUnreferenced(StorageDirectory directory, LocalDateTime before) {
+        int deleted = 0;
+        List<String> fileNames;
+        do {
+            fileNames = storedBlobRepository.findUnreferenced(directory, before, PageRequest.of(0, batchSize));
+            for (String fileName : fileNames) {
+                Boolean collected = transactionTemplate.execute(status -> {
+                    if (storedBlobRepository.deleteUnreferenced(new StoredBlobId(directory, fileName), before) == 0)
+                        return false;
+                    delete(fileName, directory);
+                    return true;
+                });
+                if (Boolean.TRUE.equals(collected)) deleted++;
+            }
+        } while (fileNames.size() == batchSize);
+        return deleted;
+    }
+
+    private int collectOrphans(StorageDirectory directory, Instant before) throws IOException {
+        Path rootLocation = root(directory);
+        if (!Files.isDirectory(rootLocation))
+            return 0;
+        int deleted = 0;
+        List<String> candidates = new ArrayList<>();
+        try (Stream<Path> paths = Files.list(rootLocation)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                String fileName = path.getFileName().toString();
+                boolean temporary = fileName.startsWith(TEMPORARY_PREFIX);
+                if (!temporary && !CONTENT_ADDRESSED_NAME.matcher(fileName).matches())
+                    continue;
+                if (!isOlderThan(path, before))
+                    continue;
+                if (temporary) {
+                    if (Files.deleteIfExists(path)) deleted++;
+                    continue;
+                }
+                candidates.add(fileName);
+                if (candidates.size() == batchSize) {
+                    adoptOrphans(directory, candidates);
+                    candidates.clear();
+                }
+            }
+        }
+        if (!candidates.isEmpty())
+            adoptOrphans(directory, candidates);
+        return deleted;
+    }
+
+    private void adoptOrphans(StorageDirectory directory, List<String> candidates) {
+        Set<String> existing = storedBlobRepository.findExisting(directory, candidates);
+        LocalDateTime now = LocalDateTime.now();
+        for (String fileName : candidates)
+            if (!existing.contains(fileName))
+                storedBlobRepository.adopt(directory.name(), fileName, now);
+    }
+
+    private boolean isOlderThan(Path path, Instant before) throws IOException {
+        FileTime lastModified = Files.getLastModifiedTime(path);
+        return lastModified.toInstant().isBefore(before);
+    }
+
+    private boolean moveIfAbsent(Path source, Path target) {
+        try {
+            if (Files.exists(target))
+                return false;
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+            files.invalidate(target);
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Path root(StorageDirectory directory) {
+        String location = switch (directory) {
+            case PROFILE_IMAGE -> profileDirectory;
+            case TEXTBOOK_COVER -> bookCoversDirectory;
+        };
+        return Paths.get(location).toAbsolutePath().normalize();
+    }
+
+    private Path resolve(String fileName, StorageDirectory directory) {
+        Path rootLocation = root(directory);
+        Path file = rootLocation.resolve(fileName).normalize();
+        if (!rootLocation.equals(file.getParent()))
+            throw new StorageException("Cannot access file outside current directory");
+        return file;
+    }
+
+    private StoredFile readAttributes(Path file) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            if (!attributes.isRegularFile())
+                throw new IOException("Not a regular file: " + file.getFileName());
+            String fileName = file.getFileName().toString();
+            if (CONTENT_ADDRESSED_NAME.matcher(fileName).matches())
+                return new StoredFile(file, attributes.size(), attributes.lastModifiedTime().toMillis(), "\"" + fileName.substring(0, 64) + "\"");
+            return new StoredFile(file, attributes.size(), attributes.lastModifiedTime().toMillis());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
@@ -0,0 +1,34 @@
+package org.example.schoolmanagementsystemspring.storage;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * The StoredBlob entity counts the references to a file of the content-addressed storage.
+ * The name of the file is the hash of its content, so identical uploads share a single file,
+ * which is deleted by the garbage collection once no entity references it.
+ *
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "storage_blob", indexes = @Index(name = "storage_blob_ref_count_updated_at_idx", columnList = "ref_count, updated_at"))
+public class StoredBlob {
+
+    @EmbeddedId
+    private StoredBlobId id;
+
+    @Column(name = "ref_count", nullable = false)
+    private int references;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,32 @@
+package org.example.schoolmanagementsystemspring.storage;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * The StoredBlobId class is the identifier of a StoredBlob, the directory and the name of its file.
+ *
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Embeddable
+public class StoredBlobId implements Serializable {
+
+    @Column(name = "directory", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private StorageDirectory directory;
+
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+}
@@ -0,0 +1,111 @@
+package org.example.schoolmanagementsystemspring.storage;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The StoredBlobRepository interface is a Spring Data JPA repository for the StoredBlob entity.
+ * It includes methods to update the reference count of a file and to find the files to be garbage-collected.
+ *
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+@Repository
+public interface StoredBlobRepository extends JpaRepository<StoredBlob, StoredBlobId> {
+
+    /**
+     * Add a reference to a file, creating its row if needed, with a single statement.
+     * The row stays locked until the transaction ends, so the file cannot be garbage-collected in the meantime.
+     *
+     * @param directory the name of the directory of the file.
+     * @param fileName  the name of the file.
+     * @param now       the current date.
+     * @return the number of rows inserted or updated.
+     */
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "storage_blob"))
+    @Query(nativeQuery = true, value = """
+            insert into storage_blob (directory, file_name, ref_count, updated_at)
+            values (:directory, :fileName, 1, :now)
+            on conflict (directory, file_name) do update set ref_count = storage_blob.ref_count + 1, updated_at = :now
+            """)
+    int retain(String directory, String fileName, LocalDateTime now);
+
+    /**
+     * Create the row of a file without references, if it has none.
+     * It is used for the files left without a row by a failed upload, so they are garbage-collected like the others.
+     *
+     * @param directory the name of the directory of the file.
+     * @param fileName  the name of the file.
+     * @param now       the current date.
+     * @return the number of rows inserted.
+     */
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "storage_blob"))
+    @Query(nativeQuery = true, value = """
+            insert into storage_blob (directory, file_name, ref_count, updated_at)
+            values (:directory, :fileName, 0, :now)
+            on conflict (directory, file_name) do nothing
+            """)
+    int adopt(String directory, String fileName, LocalDateTime now);
+
+    /**
+     * Remove a reference to a file.
+     *
+     * @param id  the id of the file.
+     * @param now the current date.
+     * @return the number of rows updated.
+     */
+    @Modifying
+    @Transactional
+    @Query("update StoredBlob b set b.references = b.references - 1, b.updatedAt = :now where b.id = :id and b.references > 0")
+    int release(StoredBlobId id, LocalDateTime now);
+
+    /**
+     * Find the files without references since before the given date.
+     *
+     * @param directory the directory of the files.
+     * @param before    the date before which the last reference was removed.
+     * @param pageable  the size of the batch.
+     * @return a List of the names of the files.
+     */
+    @Query("select b.id.fileName from StoredBlob b where b.id.directory = :directory and b.references = 0 and b.updatedAt < :before")
+    List<String> findUnreferenced(StorageDirectory directory, LocalDateTime before, Pageable pageable);
+
+    /**
+     * Find which of the given files have a row, with a single query.
+     *
+     * @param directory the directory of the files.
+     * @param fileNames the names of the files to check.
+     * @return the names of the files that have a row.
+     */
+    @Query("select b.id.fileName from StoredBlob b where b.id.directory = :directory and b.id.fileName in :fileNames")
+    Set<String> findExisting(StorageDirectory directory, Collection<String> fileNames);
+
+    /**
+     * Delete the row of a file if it still has no references.
+     * The row is locked until the transaction ends, so the file can be deleted safely before the commit.
+     *
+     * @param id     the id of the file.
+     * @param before the date before which the last reference was removed.
+     * @return the number of rows deleted.
+     */
+    @Modifying
+    @Query("delete from StoredBlob b where b.id = :id and b.references = 0 and b.updatedAt < :before")
+    int deleteUnreferenced(StoredBlobId id, LocalDateTime before);
+}
@@ -0,0 +1,27 @@
+package org.example.schoolmanagementsystemspring.storage;
+
+import java.nio.file.Path;
+
+/**
+ * The StoredFile record represents the metadata of a file in the storage.
+ * The entity tag is derived from the size and the last modification time of the file,
+ * so it is computed from a single file system call without reading the content.
+ *
+ * @param path         the absolute path of the file.
+ * @param length       the size of the file in bytes.
+ * @param lastModified the last modification time of the file in milliseconds.
+ * @param eTag         the entity tag of the file.
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+public record StoredFile(Path path, long length, long lastModified, String eTag) {
+
+    public StoredFile(Path path, long length, long lastModified) {
+        this(path, length, lastModified, "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"");
+    }
+
+    public String getFilename() {
+        return path.getFileName().toString();
+    }
+}
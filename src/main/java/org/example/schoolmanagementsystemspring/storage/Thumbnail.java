@@ -0,0 +1,21 @@
+package org.example.schoolmanagementsystemspring.storage;
+
+/**
+ * The Thumbnail record represents a resized variant of an image of the storage.
+ * Small variants are kept in memory, in the content, and larger ones on disk, in the file.
+ *
+ * @param content      the content of the variant kept in memory, or null.
+ * @param file         the file of the variant kept on disk, or null.
+ * @param eTag         the entity tag of the variant.
+ * @param lastModified the last modification time of the source image in milliseconds.
+ * @param sourceETag   the entity tag of the source image, to detect a replaced source.
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+public record Thumbnail(byte[] content, StoredFile file, String eTag, long lastModified, String sourceETag) {
+
+    public long length() {
+        return content != null ? content.length : file.length();
+    }
+}
@@ -0,0 +1,316 @@
+package org.example.schoolmanagementsystemspring.storage;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.example.schoolmanagementsystemspring.config.ExecutorBusyException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+
+/**
+ * The ThumbnailService class produces resized variants of the images of the storage, on the first request of each size.
+ * The requested size is rounded up to one of the configured sizes, so the number of variants of an image is bounded.
+ * Small variants are kept in a memory cache and larger ones in a disk cache, both bounded by the size of their content,
+ * and the least used variants are evicted first. The disk cache is emptied on startup, since its index is kept in memory:
+ * the variants are written to a "variants" subdirectory of the configured directory, and only the files named
+ * like a variant are deleted there, so a misconfigured directory never loses other files.
+ * The variants are created on the image executor, a small pool of platform threads, and concurrent requests
+ * for the same variant wait for a single resize. A resize rejected by the executor fails at once, and a request waits
+ * for a resize at most the configured timeout, then the entry is removed so the next request starts a new resize.
+ * The image is decoded with subsampling, so a large source never needs more memory than twice the variant size.
+ * The time spent creating each variant is recorded in the "thumbnail.create" timer.
+ *
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+@Slf4j
+@Service
+public class ThumbnailService {
+
+    private static final Pattern VARIANT_FILE = Pattern.compile("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}\\.png|\\.thumbnail-.*\\.tmp");
+
+    @Value("${storage.thumbnails.directory}")
+    private String directory;
+
+    @Value("${storage.thumbnails.sizes}")
+    private int[] sizes;
+
+    @Value("${storage.thumbnails.memory-max-size}")
+    private int memoryMaxSize;
+
+    @Value("${storage.thumbnails.memory-capacity}")
+    private DataSize memoryCapacity;
+
+    @Value("${storage.thumbnails.disk-capacity}")
+    private DataSize diskCapacity;
+
+    @Value("${executors.image.timeout}")
+    private Duration timeout;
+
+    private final ThreadPoolTaskExecutor executor;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Timer timer;
+
+    private Path root;
+
+    private AsyncCache<Variant, Thumbnail> memory;
+
+    private AsyncCache<Variant, Thumbnail> disk;
+
+    public ThumbnailService(@Qualifier("imageExecutor") ThreadPoolTaskExecutor executor, MeterRegistry meterRegistry) {
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.timer = Timer
+                .builder("thumbnail.create")
+                .description("Time spent creating a thumbnail")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The init method empties the disk cache and builds the memory and disk caches.
+     *
+     * @throws IOException if the directory of the disk cache cannot be created or read.
+     */
+    @PostConstruct
+    public void init() throws IOException {
+        Arrays.sort(sizes);
+        root = Paths.get(directory).toAbsolutePath().normalize().resolve("variants");
+        Files.createDirectories(root);
+        deleteVariantFiles();
+        memory = Caffeine
+                .newBuilder()
+                .maximumWeight(memoryCapacity.toBytes())
+                .weigher(this::weigh)
+                .recordStats()
+                .buildAsync();
+        disk = Caffeine
+                .newBuilder()
+                .maximumWeight(diskCapacity.toBytes())
+                .weigher(this::weigh)
+                .removalListener((RemovalListener<Variant, Thumbnail>) (key, thumbnail, cause) -> deleteFile(thumbnail))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, memory, "thumbnails.memory");
+        CaffeineCacheMetrics.monitor(meterRegistry, disk, "thumbnails.disk");
+    }
+
+    /**
+     * The getThumbnail method returns a variant of an image, creating it if it is not cached.
+     * A variant created from a previous version of the image is created again.
+     * If the image is not larger than the requested size, the variant is the image itself.
+     *
+     * @param source        the image.
+     * @param directory     the directory of the image.
+     * @param requestedSize the maximum width and height requested, in pixels.
+     * @return the variant of the image.
+     * @throws IllegalArgumentException if the requested size is not positive.
+     * @throws StorageException         if the image cannot be read.
+     * @throws ExecutorBusyException    if the variant is not created in time.
+     */
+    public Thumbnail getThumbnail(@NonNull StoredFile source, @NonNull StorageDirectory directory, int requestedSize) {
+        if (requestedSize <= 0)
+            throw new IllegalArgumentException("Invalid thumbnail size: " + requestedSize);
+        int size = Arrays.stream(sizes).filter(value -> value >= requestedSize).findFirst().orElse(sizes[sizes.length - 1]);
+        Variant key = new Variant(directory, source.getFilename(), size);
+        AsyncCache<Variant, Thumbnail> cache = size <= memoryMaxSize ? memory : disk;
+        Thumbnail thumbnail = join(cache, key, cache.get(key, (variant, ignored) -> createAsync(source, size)));
+        if (thumbnail.sourceETag().equals(source.eTag()))
+            return thumbnail;
+        cache.synchronous().invalidate(key);
+        return join(cache, key, cache.get(key, (variant, ignored) -> createAsync(source, size)));
+    }
+
+    /**
+     * The invalidate method removes every variant of an image from the caches, when the image is replaced.
+     *
+     * @param fileName  the name of the image.
+     * @param directory the directory of the image.
+     */
+    public void invalidate(String fileName, @NonNull StorageDirectory directory) {
+        if (fileName == null)
+            return;
+        for (int size : sizes) {
+            Variant key = new Variant(directory, fileName, size);
+            memory.synchronous().invalidate(key);
+            disk.synchronous().invalidate(key);
+        }
+    }
+
+    private Thumbnail create(StoredFile source, int size) {
+        Timer.Sample sample = Timer.start();
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.path().toFile())) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext())
+                throw new StorageException("Could not read image: " + source.getFilename());
+            ImageReader reader = readers.next();
+            BufferedImage image;
+            try {
+                reader.setInput(input, true, true);
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                if (longest <= size)
+                    return new Thumbnail(null, source, source.eTag(), source.lastModified(), source.eTag());
+                int subsampling = Math.max(1, longest / (size * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                image = reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            ImageIO.write(scale(image, size), "png", output);
+            String eTag = "\"" + source.eTag().replace("\"", "") + "-" + size + "\"";
+            if (size <= memoryMaxSize)
+                return new Thumbnail(output.toByteArray(), null, eTag, source.lastModified(), source.eTag());
+
+            // a new name per variant, so the asynchronous deletion of an evicted variant never removes its replacement
+            String name = UUID.randomUUID() + ".png";
+            Path temporaryFile = Files.createTempFile(root, ".thumbnail-", ".tmp");
+            try {
+                Files.write(temporaryFile, output.toByteArray());
+                Path file = Files.move(temporaryFile, root.resolve(name), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                return new Thumbnail(null, new StoredFile(file, output.size(), source.lastModified(), eTag), eTag, source.lastModified(), source.eTag());
+            } finally {
+                Files.deleteIfExists(temporaryFile);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            sample.stop(timer);
+        }
+    }
+
+    /**
+     * The scale method resizes an image so its width and height fit the size, keeping its aspect ratio.
+     * The image is halved in steps with bilinear interpolation, which keeps the quality of a bicubic resize at a lower cost.
+     */
+    private BufferedImage scale(BufferedImage image, int size) {
+        double ratio = (double) size / Math.max(image.getWidth(), image.getHeight());
+        int targetWidth = Math.max(1, (int) Math.round(image.getWidth() * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(image.getHeight() * ratio));
+        BufferedImage current = image;
+        int width = image.getWidth();
+        int height = image.getHeight();
+        while (width != targetWidth || height != targetHeight) {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D graphics = next.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(current, 0, 0, width, height, null);
+            graphics.dispose();
+            current = next;
+        }
+        return current;
+    }
+
+    private int weigh(Variant key, Thumbnail thumbnail) {
+        if (thumbnail.content() == null && !thumbnail.file().path().startsWith(root))
+            return 1;
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(1, thumbnail.length()));
+    }
+
+    private void deleteFile(Thumbnail thumbnail) {
+        if (thumbnail == null || thumbnail.file() == null || !thumbnail.file().path().startsWith(root))
+            return;
+        try {
+            Files.deleteIfExists(thumbnail.file().path());
+        } catch (IOException e) {
+            log.error("Error deleting thumbnail: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * This method deletes the variants left on disk by a previous run.
+     * Only the regular files of the variants directory whose names were generated by this service are deleted,
+     * and subdirectories are never visited.
+     *
+     * @throws IOException if the variants directory cannot be read.
+     */
+    private void deleteVariantFiles() throws IOException {
+        int deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(root)) {
+            for (Path file : files) {
+                if (Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS) && VARIANT_FILE.matcher(file.getFileName().toString()).matches()) {
+                    Files.deleteIfExists(file);
+                    deleted++;
+                }
+            }
+        }
+        if (deleted > 0)
+            log.info("Deleted {} thumbnails of a previous run", deleted);
+    }
+
+    /**
+     * This method starts the creation of a variant on the image executor.
+     * A rejected task returns a failed future, so the cache drops the entry instead of keeping a future that never completes.
+     */
+    private CompletableFuture<Thumbnail> createAsync(StoredFile source, int size) {
+        try {
+            return CompletableFuture.supplyAsync(() -> create(source, size), executor);
+        } catch (TaskRejectedException e) {
+            return CompletableFuture.failedFuture(new ExecutorBusyException("Too many thumbnails are being created", e));
+        }
+    }
+
+    private Thumbnail join(AsyncCache<Variant, Thumbnail> cache, Variant key, CompletableFuture<Thumbnail> future) {
+        try {
+            return future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            cache.asMap().remove(key, future);
+            throw new ExecutorBusyException("Timed out waiting for the thumbnail", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExecutorBusyException("Interrupted while waiting for the thumbnail", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof StorageException storageException)
+                throw storageException;
+            if (e.getCause() instanceof ExecutorBusyException executorBusyException)
+                throw executorBusyException;
+            log.error("Error creating thumbnail: {}", e.getCause().getMessage());
+            throw new StorageException("Could not create thumbnail", e.getCause());
+        }
+    }
+
+    private record Variant(StorageDirectory directory, String fileName, int size) {
+    }
+}
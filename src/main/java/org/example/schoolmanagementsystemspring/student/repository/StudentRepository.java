@@ -1,6 +1,8 @@
 package org.example.schoolmanagementsystemspring.student.repository;
 
+import org.example.schoolmanagementsystemspring.admin.dto.ResponseStudent;
 import org.example.schoolmanagementsystemspring.student.entity.Student;
+import org.example.schoolmanagementsystemspring.teacher.dto.StudentResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -16,20 +18,50 @@ public interface StudentRepository extends JpaRepository<Student, Integer> {
     @Query("select s from Student s where s.email = ?1 and s.isEnabled = true")
     Optional<Student> findByEmailAndIsEnabledTrue(@NonNull String email);
 
-    @Query("""
-            select s from Student s
-            where (?1 is null or upper(s.firstName) like upper(concat(?1, '%'))) and (?2 is null or upper(s.lastName) like upper(concat(?2, '%'))) and (?3 is null or upper(s.email) like upper(concat(?3, '%')))""")
-    Page<Student> searchStudent(@Nullable String firstName, @Nullable String lastName, @Nullable String email, Pageable pageable);
+    @Query("select s.id from Student s where s.email = ?1 and s.isEnabled = true")
+    Optional<Integer> findIdByEmailAndIsEnabledTrue(@NonNull String email);
+
+    @Query(
+            value = """
+                    select new org.example.schoolmanagementsystemspring.teacher.dto.StudentResponse(s.firstName, s.lastName, s.email, s.gradeLevel)
+                    from Student s
+                    where (?1 is null or upper(s.firstName) like upper(concat(?1, '%'))) and (?2 is null or upper(s.lastName) like upper(concat(?2, '%'))) and (?3 is null or upper(s.email) like upper(concat(?3, '%')))""",
+            countQuery = """
+                    select count(s) from Student s
+                    where (?1 is null or upper(s.firstName) like upper(concat(?1, '%'))) and (?2 is null or upper(s.lastName) like upper(concat(?2, '%'))) and (?3 is null or upper(s.email) like upper(concat(?3, '%')))"""
+    )
+    Page<StudentResponse> searchStudent(@Nullable String firstName, @Nullable String lastName, @Nullable String email, Pageable pageable);
 
     @Query("select s from Student s where s.email in ?1")
     List<Student> findByEmailIn(@NonNull Collection<String> emails);
 
-    @Query("select s from Student s inner join s.courses courses where courses.courseCode = ?1")
-    Page<Student> findByCourses_CourseCode(@NonNull String courseCode, Pageable pageable);
+    @Query(
+            value = """
+                    select new org.example.schoolmanagementsystemspring.teacher.dto.StudentResponse(s.firstName, s.lastName, s.email, s.gradeLevel)
+                    from Student s inner join s.courses courses
+                    where courses.courseCode = ?1""",
+            countQuery = "select count(s) from Student s inner join s.courses courses where courses.courseCode = ?1"
+    )
+    Page<StudentResponse> findByCourses_CourseCode(@NonNull String courseCode, Pageable pageable);
 
     @Query("select s from Student s inner join s.courses courses where courses.courseCode = ?1")
     List<Student> findStudentsByCourseCode(@NonNull String courseCode);
 
     @Query("select (count(s) > 0) from Student s where s.email = ?1")
     boolean existsByEmail(@NonNull String email);
+
+    /**
+     * The findStudentPage method selects only the columns of a page of students, without loading the entities.
+     */
+    @Query(
+            value = """
+                    select new org.example.schoolmanagementsystemspring.admin.dto.ResponseStudent(
+                        s.id, s.firstName, s.lastName, s.email, s.description, s.isEnabled,
+                        s.studentIdentification, s.birthDate, s.gradeLevel, s.medicalInformation
+                    )
+                    from Student s
+                    """,
+            countQuery = "select count(s) from Student s"
+    )
+    Page<ResponseStudent> findStudentPage(Pageable pageable);
 }
\ No newline at end of file
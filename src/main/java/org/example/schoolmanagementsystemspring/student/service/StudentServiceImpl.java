@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.schoolmanagementsystemspring.assignment.AssignmentRepository;
 import org.example.schoolmanagementsystemspring.authentication.service.AuthenticationService;
+import org.example.schoolmanagementsystemspring.authentication.service.PasswordHashService;
 import org.example.schoolmanagementsystemspring.course.CourseRepository;
 import org.example.schoolmanagementsystemspring.parent.repository.ParentRepository;
 import org.example.schoolmanagementsystemspring.school.entity.School;
@@ -20,9 +21,10 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -34,7 +36,8 @@ import java.util.List;
 public class StudentServiceImpl implements StudentService {
 
     private final StudentRepository studentRepository;
-    private final PasswordEncoder encoder;
+    private final PasswordHashService passwordHashService;
+    private final TransactionTemplate transactionTemplate;
     private final SchoolRepository schoolRepository;
     private final CourseRepository courseRepository;
     private final AssignmentRepository assignmentRepository;
@@ -43,7 +46,17 @@ public class StudentServiceImpl implements StudentService {
     private final AuthenticationService authenticationService;
     private final StudentMapper studentMapper;
 
+    /**
+     * The register method registers a new student.
+     * The password is hashed before the transaction starts, so no database connection is held while hashing,
+     * and the student is saved with its activation code in a single transaction.
+     *
+     * @param request the request containing the student's information
+     * @throws SchoolNotFoundException if the school is not found
+     * @throws UserNotFoundException   if the user is not found
+     */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void register(RequestStudent request) throws SchoolNotFoundException, UserNotFoundException {
         log.info("Registering student: {}", request.email());
 
@@ -60,14 +73,13 @@ public class StudentServiceImpl implements StudentService {
 
         student.setSchool(school);
 
-        student.setPassword(encoder.encode(request.password()));
+        student.setPassword(passwordHashService.encode(request.password()));
 
-        studentRepository.save(student);
-
-        authenticationService.generateActivationCode(request.email());
+        transactionTemplate.executeWithoutResult(status -> authenticationService.generateActivationCodes(List.of(studentRepository.save(student))));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public StudentInformation getStudentInformation(Authentication authentication) throws UserNotFoundException {
         log.info("Getting student {} information", authentication.getName());
 
@@ -90,6 +102,7 @@ public class StudentServiceImpl implements StudentService {
                 .build();
     }
 
+    @Transactional(readOnly = true)
     public Page<CourseResponse> enrolledCourses(Authentication authentication, int page, int size) {
         log.info("Getting student {} enrolled courses", authentication.getName());
 
@@ -125,36 +138,23 @@ public class StudentServiceImpl implements StudentService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<AssignmentResponse> getAllAssignments(Authentication authentication, int page, int size) throws UserNotFoundException {
         log.info("Getting student {} assignments", authentication.getName());
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by("deliverAssignment").ascending());
+        Pageable pageable = PageRequest.of(page, size, Sort.by("id.deliverAssignment").ascending());
 
         var username = authentication.getName();
 
-        Student student = studentRepository
-                .findByEmailAndIsEnabledTrue(username)
+        Integer studentID = studentRepository
+                .findIdByEmailAndIsEnabledTrue(username)
                 .orElseThrow(() -> new UserNotFoundException("Student not found"));
 
-        var result = assignmentRepository.findById_StudentID(student.getId(), pageable);
-
-        return result.map(assignment ->
-                AssignmentResponse
-                        .builder()
-                        .studentID(assignment.getId().getStudentID())
-                        .courseCode(assignment.getId().getCourseCode())
-                        .delivery(assignment.getId().getDeliverAssignment())
-                        .grade(assignment.getGrade())
-                        .feedback(assignment.getFeedback())
-                        .title(assignment.getTitle())
-                        .description(assignment.getDescription())
-                        .submissionType(assignment.getSubmissionType())
-                        .assignmentType(assignment.getAssignmentType())
-                        .build()
-        );
+        return assignmentRepository.findById_StudentID(studentID, pageable);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<AssignmentResponse> getFutureAssignments(Authentication authentication) throws UserNotFoundException {
         log.info("Getting student {} future assignments", authentication.getName());
 
@@ -183,6 +183,7 @@ public class StudentServiceImpl implements StudentService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public TeacherResponse getTeacherResponsibleFor(Authentication authentication) throws UserNotFoundException {
         log.info("Getting student {} teacher responsible for", authentication.getName());
 
@@ -206,6 +207,7 @@ public class StudentServiceImpl implements StudentService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ParentResponse getParentInformation(Authentication authentication) throws UserNotFoundException {
         log.info("Getting student {} parent information", authentication.getName());
 
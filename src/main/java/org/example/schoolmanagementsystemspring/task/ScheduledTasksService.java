@@ -1,15 +1,32 @@
 package org.example.schoolmanagementsystemspring.task;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.schoolmanagementsystemspring.authentication.repository.TokenRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * The ScheduledTasksService class is a service that handles scheduled tasks.
  * It uses the TokenRepository to perform its operations.
- * It provides a method for deleting expired tokens, which is scheduled to run at the end of every month.
+ * It provides a method for purging expired tokens, which runs continuously with a fixed delay between runs.
+ * Tokens are deleted in small chunks paged by id, each chunk in its own short transaction,
+ * and the number of rows deleted per second is limited, so a purge never holds a long transaction or loads many entities.
+ * A run deletes a bounded number of chunks and leaves the rest of the backlog to the next runs,
+ * so it never holds a scheduler thread for long and the other scheduled tasks keep running.
+ * The purged rows, the purge throughput and the remaining backlog are exposed as metrics.
  *
  * @author FFreitas
  * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
@@ -20,17 +37,101 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class ScheduledTasksService {
 
+    @Value("${tasks.token-purge.chunk-size}")
+    private int chunkSize;
+
+    @Value("${tasks.token-purge.rate-limit}")
+    private int rateLimit;
+
+    @Value("${tasks.token-purge.max-chunks}")
+    private int maxChunks;
+
+    @Value("${spring.application.security.jwt.expiration}")
+    private long jwtExpiration;
+
+    @Value("${email.code.expiration}")
+    private long codeExpiration;
+
     private final TokenRepository tokenRepository;
 
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicLong backlog = new AtomicLong();
+
+    private final AtomicLong throughput = new AtomicLong();
+
+    private Counter purged;
+
+    /**
+     * The init method registers the metrics of the token purge.
+     */
+    @PostConstruct
+    public void init() {
+        purged = Counter
+                .builder("tokens.purge.deleted")
+                .description("Number of expired tokens deleted by the purge")
+                .register(meterRegistry);
+        Gauge
+                .builder("tokens.purge.backlog", backlog, AtomicLong::get)
+                .description("Number of expired tokens waiting to be deleted")
+                .register(meterRegistry);
+        Gauge
+                .builder("tokens.purge.throughput", throughput, AtomicLong::get)
+                .description("Number of expired tokens deleted per second in the last purge")
+                .register(meterRegistry);
+    }
+
     /**
-     * The deleteExpiredTokens method deleted expired tokens.
-     * It is scheduled to run at the end of every month.
-     * It logs the start of the operation and then calls the deleteByExpiredTrue method of the TokenRepository
-     * to delete the expired tokens.
+     * The deleteExpiredTokens method purges expired tokens.
+     * It is scheduled to run with a fixed delay after the previous run.
+     * A token is expired if it was marked as expired, or if its JWT or activation code expiration has passed.
+     * It reads the ids of the next chunk of expired tokens after the last deleted id,
+     * deletes them with a single statement and waits as needed to respect the rate limit,
+     * until no expired tokens are left or the maximum number of chunks per run is reached.
      */
-    @Scheduled(cron = "0 0 23 L * ?")
+    @Scheduled(fixedDelayString = "${tasks.token-purge.interval}", initialDelayString = "${tasks.token-purge.interval}")
     public void deleteExpiredTokens() {
-        log.info("Deleting expired tokens");
-        tokenRepository.deleteByExpiredTrue();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime bearerLimit = now.minus(jwtExpiration, ChronoUnit.MILLIS);
+        LocalDateTime codeLimit = now.minusMinutes(codeExpiration);
+        backlog.set(tokenRepository.countPurgeable(bearerLimit, codeLimit));
+        if (backlog.get() == 0) {
+            throughput.set(0);
+            return;
+        }
+        long start = System.nanoTime();
+        long deleted = 0;
+        int afterId = Integer.MIN_VALUE;
+        int chunks = 0;
+        List<Integer> ids;
+        do {
+            ids = tokenRepository.findPurgeableIds(afterId, bearerLimit, codeLimit, PageRequest.of(0, chunkSize));
+            if (ids.isEmpty()) break;
+            int count = tokenRepository.deleteByIds(ids);
+            deleted += count;
+            purged.increment(count);
+            backlog.set(Math.max(backlog.get() - count, 0));
+            afterId = ids.get(ids.size() - 1);
+        } while (ids.size() == chunkSize && ++chunks < maxChunks && throttle(ids.size()));
+        long elapsed = Math.max(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), 1);
+        throughput.set(deleted * 1000 / elapsed);
+        log.info("Deleted {} expired tokens in {} ms, {} left", deleted, elapsed, backlog.get());
+    }
+
+    /**
+     * This method waits the time needed to delete the given number of rows at the configured rate limit.
+     *
+     * @param rows the number of rows deleted in the last chunk.
+     * @return a boolean indicating whether the purge can continue, false if the thread was interrupted.
+     */
+    private boolean throttle(int rows) {
+        if (rateLimit <= 0) return true;
+        try {
+            Thread.sleep(TimeUnit.SECONDS.toMillis(rows) / rateLimit);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
     }
-}
\ No newline at end of file
+}
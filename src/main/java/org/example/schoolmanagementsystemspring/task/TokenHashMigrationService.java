@@ -0,0 +1,77 @@
+package org.example.schoolmanagementsystemspring.task;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.schoolmanagementsystemspring.authentication.entity.Token;
+import org.example.schoolmanagementsystemspring.authentication.repository.TokenRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The TokenHashMigrationService class fills the digest column of the tokens stored before the column existed.
+ * It runs once on startup, before the web server accepts requests, so the sessions of these tokens keep working,
+ * and processes the tokens in chunks, each chunk in its own transaction.
+ * The raw column is made nullable, since new tokens no longer store their raw value,
+ * and the raw value of a migrated token is cleared once its digest is stored.
+ * A token whose digest is already used by another token (an old duplicated activation code) is deleted,
+ * since the digest column has a unique index.
+ * Once every row has a digest, this service does nothing.
+ *
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenHashMigrationService {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private final TokenRepository tokenRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * The migrate method computes the digest of every token without one.
+     */
+    @PostConstruct
+    public void migrate() {
+        tokenRepository.dropLegacyValueNotNull();
+        long migrated = 0;
+        Integer count;
+        do {
+            count = transactionTemplate.execute(status -> migrateChunk());
+            migrated += count == null ? 0 : count;
+        } while (count != null && count == CHUNK_SIZE);
+        if (migrated > 0)
+            log.info("Computed the digest of {} tokens", migrated);
+    }
+
+    /**
+     * This method computes the digest of the next chunk of tokens without one.
+     *
+     * @return the number of tokens processed.
+     */
+    private int migrateChunk() {
+        List<Token> tokens = tokenRepository.findWithoutHash(PageRequest.of(0, CHUNK_SIZE));
+        Set<ByteBuffer> seen = new HashSet<>();
+        for (Token token : tokens) {
+            byte[] hash = token.getLegacyValue() == null ? null : Token.hash(token.getLegacyValue());
+            if (hash == null || !seen.add(ByteBuffer.wrap(hash)) || tokenRepository.existsByHash(hash)) {
+                tokenRepository.delete(token);
+                continue;
+            }
+            token.setHash(hash);
+            token.setLegacyValue(null);
+        }
+        return tokens.size();
+    }
+}
@@ -3,11 +3,16 @@ package org.example.schoolmanagementsystemspring.teacher.controller;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.schoolmanagementsystemspring.authentication.exception.UserAlreadyExistsException;
+import org.example.schoolmanagementsystemspring.cache.CachedResource;
+import org.example.schoolmanagementsystemspring.cache.ConditionalResponseService;
 import org.example.schoolmanagementsystemspring.school.exception.SchoolNotFoundException;
+import org.example.schoolmanagementsystemspring.storage.FileResponseWriter;
 import org.example.schoolmanagementsystemspring.teacher.dto.*;
 import org.example.schoolmanagementsystemspring.teacher.exception.StudentAlreadyHasResponsibleException;
 import org.example.schoolmanagementsystemspring.teacher.exception.TeacherAlreadyExistsException;
@@ -15,11 +20,13 @@ import org.example.schoolmanagementsystemspring.teacher.exception.TeacherNotFoun
 import org.example.schoolmanagementsystemspring.teacher.service.TeacherService;
 import org.example.schoolmanagementsystemspring.teacher.service.TextBookResponse;
 import org.example.schoolmanagementsystemspring.user.exception.UserNotFoundException;
-import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -50,6 +57,10 @@ public class TeacherController {
 
     private final TeacherService service;
 
+    private final FileResponseWriter fileResponseWriter;
+
+    private final ConditionalResponseService conditionalResponseService;
+
     /**
      * This method allows a teacher to register in the system.
      *
@@ -336,20 +347,22 @@ public class TeacherController {
 
     /**
      * This method allows a teacher to download the cover of a textbook.
-     * It uses the textbook ID to find the textbook and then retrieves the cover of the textbook.
+     * It uses the textbook ID to find the textbook and then writes the cover of the textbook,
+     * answering conditional and range requests.
      *
      * @param textBookID the ID of the textbook
-     * @return the cover of the textbook
+     * @param request    the HTTP request
+     * @param response   the HTTP response
      * @throws UserNotFoundException if the textbook is not found
+     * @throws IOException           if an I/O error occurs while writing the cover
      */
     @PreAuthorize("hasRole('TEACHER') and hasAuthority('teacher:read')")
     @SecurityRequirement(name = "JSON Web Token (JWT)")
     @Operation(summary = "Textbook Cover Download", description = "Download the cover of a textbook")
     @GetMapping("/textbook/{textBookID}/cover")
-    @ResponseStatus(OK)
-    public Resource downloadTextBookCover(@PathVariable Integer textBookID) throws UserNotFoundException {
+    public void downloadTextBookCover(@PathVariable Integer textBookID, HttpServletRequest request, HttpServletResponse response) throws UserNotFoundException, IOException {
         log.info("Downloading textbook cover: {}", textBookID);
-        return service.downloadTextBookCover(textBookID);
+        fileResponseWriter.write(service.downloadTextBookCover(textBookID), MediaType.IMAGE_PNG, request, response);
     }
 
     /**
@@ -392,17 +405,24 @@ public class TeacherController {
      * This method retrieves all textbooks associated with a specific course.
      * It uses the course code to find the course and then retrieves all textbooks associated with the course.
      *
+     * The textbooks are only loaded if the client does not have the current version of the list.
+     *
      * @param courseCode the code of the course
-     * @return a paginated list of textbooks associated with the course
+     * @param request    the web request
+     * @return a paginated list of textbooks associated with the course, or 304 Not Modified
      */
 
     @PreAuthorize("hasRole('TEACHER') and hasAuthority('teacher:read')")
     @SecurityRequirement(name = "JSON Web Token (JWT)")
     @Operation(summary = "Textbook Course", description = "List of textbooks by course")
     @GetMapping("/course/{courseCode}/textbook")
-    @ResponseStatus(OK)
-    public List<TextBookResponse> getTextBookInformation(@PathVariable String courseCode) {
+    public ResponseEntity<List<TextBookResponse>> getTextBookInformation(@PathVariable String courseCode, WebRequest request) {
         log.info("Getting information about textbook: {}", courseCode);
-        return service.getTextBooksByCourse(courseCode);
+        return conditionalResponseService.respond(
+                request,
+                CachedResource.COURSE_TEXTBOOKS,
+                service.getTextBooksByCourseVersion(courseCode),
+                () -> service.getTextBooksByCourse(courseCode)
+        );
     }
 }
@@ -26,4 +26,12 @@ public record StudentResponse(
         LocalDateTime birthDate,
         String schoolName,
         Integer schoolID
-) { }
+) {
+
+    /**
+     * The constructor used by the student page queries, which select only the columns of the response.
+     */
+    public StudentResponse(String firstName, String lastName, String email, GradeLevel gradeLevel) {
+        this(firstName, lastName, email, null, null, gradeLevel, null, null, null, null);
+    }
+}
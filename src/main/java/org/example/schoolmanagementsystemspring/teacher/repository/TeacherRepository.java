@@ -1,6 +1,9 @@
 package org.example.schoolmanagementsystemspring.teacher.repository;
 
+import org.example.schoolmanagementsystemspring.admin.dto.ResponseTeacher;
 import org.example.schoolmanagementsystemspring.teacher.entity.Teacher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.lang.NonNull;
@@ -24,4 +27,19 @@ public interface TeacherRepository extends JpaRepository<Teacher, Integer> {
 
     @Query("select t from Teacher t where t.email = ?1")
     Optional<Teacher> findByEmail(@NonNull String email);
+
+    /**
+     * The findTeacherPage method selects only the columns of a page of teachers, without loading the entities.
+     */
+    @Query(
+            value = """
+                    select new org.example.schoolmanagementsystemspring.admin.dto.ResponseTeacher(
+                        t.id, t.firstName, t.lastName, t.email, t.description, t.department,
+                        t.educationQualification, t.experience, t.recognition, t.teachMethod, t.isEnabled
+                    )
+                    from Teacher t
+                    """,
+            countQuery = "select count(t) from Teacher t"
+    )
+    Page<ResponseTeacher> findTeacherPage(Pageable pageable);
 }
\ No newline at end of file
@@ -1,13 +1,14 @@
 package org.example.schoolmanagementsystemspring.teacher.service;
 
 import org.example.schoolmanagementsystemspring.authentication.exception.UserAlreadyExistsException;
+import org.example.schoolmanagementsystemspring.cache.ResourceVersion;
 import org.example.schoolmanagementsystemspring.school.exception.SchoolNotFoundException;
+import org.example.schoolmanagementsystemspring.storage.StoredFile;
 import org.example.schoolmanagementsystemspring.teacher.dto.*;
 import org.example.schoolmanagementsystemspring.teacher.exception.StudentAlreadyHasResponsibleException;
 import org.example.schoolmanagementsystemspring.teacher.exception.TeacherAlreadyExistsException;
 import org.example.schoolmanagementsystemspring.teacher.exception.TeacherNotFoundException;
 import org.example.schoolmanagementsystemspring.user.exception.UserNotFoundException;
-import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.multipart.MultipartFile;
@@ -53,11 +54,13 @@ public interface TeacherService {
 
     void createTextBook(RequestTextBook request);
 
-    Resource downloadTextBookCover(Integer textBookID) throws UserNotFoundException;
+    StoredFile downloadTextBookCover(Integer textBookID) throws UserNotFoundException;
 
     void uploadTextBookCover(Integer textBookID, MultipartFile file) throws IOException;
 
     void associateTextBookToCourse(String courseCode, String textBookISBN);
 
     List<TextBookResponse> getTextBooksByCourse(String courseCode);
+
+    ResourceVersion getTextBooksByCourseVersion(String courseCode);
 }
@@ -6,6 +6,8 @@ import org.example.schoolmanagementsystemspring.assignment.Assignment;
 import org.example.schoolmanagementsystemspring.assignment.AssignmentID;
 import org.example.schoolmanagementsystemspring.assignment.AssignmentRepository;
 import org.example.schoolmanagementsystemspring.authentication.service.AuthenticationService;
+import org.example.schoolmanagementsystemspring.authentication.service.PasswordHashService;
+import org.example.schoolmanagementsystemspring.cache.ResourceVersion;
 import org.example.schoolmanagementsystemspring.course.Course;
 import org.example.schoolmanagementsystemspring.course.CourseRepository;
 import org.example.schoolmanagementsystemspring.school.entity.School;
@@ -13,6 +15,7 @@ import org.example.schoolmanagementsystemspring.school.exception.SchoolNotFoundE
 import org.example.schoolmanagementsystemspring.school.repository.SchoolRepository;
 import org.example.schoolmanagementsystemspring.storage.StorageDirectory;
 import org.example.schoolmanagementsystemspring.storage.StorageService;
+import org.example.schoolmanagementsystemspring.storage.StoredFile;
 import org.example.schoolmanagementsystemspring.student.entity.Student;
 import org.example.schoolmanagementsystemspring.student.repository.StudentRepository;
 import org.example.schoolmanagementsystemspring.teacher.dto.*;
@@ -25,22 +28,21 @@ import org.example.schoolmanagementsystemspring.teacher.repository.TeacherReposi
 import org.example.schoolmanagementsystemspring.textbook.TextBook;
 import org.example.schoolmanagementsystemspring.textbook.TextBookRepository;
 import org.example.schoolmanagementsystemspring.user.exception.UserNotFoundException;
-import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.lang.NonNull;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Objects;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
@@ -62,7 +64,8 @@ import java.util.function.Predicate;
 public class TeacherServiceImpl implements TeacherService {
 
     private final TeacherRepository repository;
-    private final PasswordEncoder encoder;
+    private final PasswordHashService passwordHashService;
+    private final TransactionTemplate transactionTemplate;
     private final SchoolRepository schoolRepository;
     private final AuthenticationService authenticationService;
     private final StudentRepository studentRepository;
@@ -83,7 +86,8 @@ public class TeacherServiceImpl implements TeacherService {
      * It checks if a teacher with the same email already exists.
      * It also checks if the school exists.
      * If the teacher or the school does not exist, it throws an exception.
-     * Otherwise, it saves the new teacher and generates an activation code.
+     * Otherwise, it hashes the password before the transaction starts, so no database connection is held while hashing,
+     * and saves the new teacher with its activation code in a single transaction.
      *
      * @param request the request containing the teacher's information
      * @throws UserNotFoundException         if the user is not found
@@ -91,6 +95,7 @@ public class TeacherServiceImpl implements TeacherService {
      * @throws TeacherAlreadyExistsException if the teacher already exists
      */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void register(RequestTeacher request) throws UserNotFoundException, SchoolNotFoundException, TeacherAlreadyExistsException {
         log.info("Registering teacher: {}", request.email());
 
@@ -106,11 +111,9 @@ public class TeacherServiceImpl implements TeacherService {
 
         newTeacher.setSchool(school);
 
-        newTeacher.setPassword(encoder.encode(request.password()));
+        newTeacher.setPassword(passwordHashService.encode(request.password()));
 
-        repository.save(newTeacher);
-
-        authenticationService.generateActivationCode(request.email());
+        transactionTemplate.executeWithoutResult(status -> authenticationService.generateActivationCodes(List.of(repository.save(newTeacher))));
     }
 
     /**
@@ -124,6 +127,7 @@ public class TeacherServiceImpl implements TeacherService {
      * @throws TeacherNotFoundException if the teacher is not found
      */
     @Override
+    @Transactional(readOnly = true)
     public TeacherResponse getTeacherInformation(Authentication authentication) throws TeacherNotFoundException {
         log.info("Getting teacher {} information", authentication.getName());
 
@@ -183,6 +187,7 @@ public class TeacherServiceImpl implements TeacherService {
      * @throws TeacherNotFoundException if the teacher is not found
      */
     @Override
+    @Transactional(readOnly = true)
     public List<StudentResponse> getStudentResponsibleFor(Authentication authentication) throws TeacherNotFoundException {
         log.info("Getting student responsible for teacher: {}", authentication.getName());
 
@@ -211,6 +216,7 @@ public class TeacherServiceImpl implements TeacherService {
      * @return the courses the teacher is teaching
      */
     @Override
+    @Transactional(readOnly = true)
     public Page<CourseResponse> getCourses(Authentication authentication, int page, int size) {
         log.info("Getting courses for teacher: {}", authentication.getName());
 
@@ -234,6 +240,7 @@ public class TeacherServiceImpl implements TeacherService {
     /**
      * This method searches for students by their first name, last name, and email.
      * It returns the students that match the search criteria.
+     * Only the columns of the response are selected, so no student is loaded into the persistence context.
      *
      * @param firstName the first name of the student
      * @param lastName  the last name of the student
@@ -243,22 +250,13 @@ public class TeacherServiceImpl implements TeacherService {
      * @return the students that match the search criteria
      */
     @Override
+    @Transactional(readOnly = true)
     public Page<StudentResponse> searchStudent(String firstName, String lastName, String email, int page, int size) {
         log.info("Searching student by first name: {}, last name: {}, email: {}", firstName, lastName, email);
 
         Pageable pageable = PageRequest.of(page, size, Sort.by("email").ascending());
 
-        var result = studentRepository.searchStudent(firstName, lastName, email, pageable);
-
-        Function<Student, StudentResponse> handleResult = param -> StudentResponse
-                .builder()
-                .firstName(param.getFirstName())
-                .lastName(param.getLastName())
-                .email(param.getEmail())
-                .gradeLevel(param.getGradeLevel())
-                .build();
-
-        return result.map(handleResult);
+        return studentRepository.searchStudent(firstName, lastName, email, pageable);
     }
 
     /**
@@ -308,22 +306,13 @@ public class TeacherServiceImpl implements TeacherService {
      * @return the students of the course
      */
     @Override
+    @Transactional(readOnly = true)
     public Page<StudentResponse> getStudentsByCourse(String courseCode, int page, int size) {
         log.info("Getting students by course: {}", courseCode);
 
         Pageable pageable = PageRequest.of(page, size, Sort.by("email").ascending());
 
-        var students = studentRepository.findByCourses_CourseCode(courseCode, pageable);
-
-        Function<Student, StudentResponse> handleResult = param -> StudentResponse
-                .builder()
-                .firstName(param.getFirstName())
-                .lastName(param.getLastName())
-                .email(param.getEmail())
-                .gradeLevel(param.getGradeLevel())
-                .build();
-
-        return students.map(handleResult);
+        return studentRepository.findByCourses_CourseCode(courseCode, pageable);
     }
 
     /**
@@ -337,6 +326,7 @@ public class TeacherServiceImpl implements TeacherService {
      * @throws IllegalArgumentException if the course is not found
      */
     @Override
+    @Transactional(readOnly = true)
     public CourseResponse getCourseInformation(String courseCode) {
         log.info("Getting course information: {}", courseCode);
 
@@ -386,6 +376,7 @@ public class TeacherServiceImpl implements TeacherService {
      * @return the assignments that match the course code and delivery date
      */
     @Override
+    @Transactional(readOnly = true)
     public Page<AssignmentResponse> getAssignmentsByCourseAndDelivery(String courseCode, LocalDateTime delivery, int page, int size) {
         log.info("Getting assignments by course: {} and delivery: {}", courseCode, delivery);
 
@@ -419,6 +410,7 @@ public class TeacherServiceImpl implements TeacherService {
      * @throws IllegalArgumentException if the assignment is not found
      */
     @Override
+    @Transactional(readOnly = true)
     public AssignmentResponse getAssignmentByCourseAndDeliveryAndStudent(String courseCode, LocalDateTime delivery, Integer studentID) {
         log.info("Getting assignment by course: {}, delivery: {} and student: {}", courseCode, delivery, studentID);
 
@@ -505,48 +497,57 @@ public class TeacherServiceImpl implements TeacherService {
     }
 
     @Override
-    public Resource downloadTextBookCover(Integer textBookID) {
+    @Transactional(readOnly = true)
+    public StoredFile downloadTextBookCover(Integer textBookID) {
         log.info("Downloading textbook cover: {}", textBookID);
 
         var textBook = textBookRepository
                 .findById(textBookID)
                 .orElseThrow(() -> new IllegalArgumentException("Textbook not found"));
 
-        var resource = storageService.loadResource(textBook.getCoverFileName(), StorageDirectory.TEXTBOOK_COVER);
-
-        if (resource == null || !resource.exists() || !resource.isReadable()) {
-            log.error("Could not read file: {}", textBook.getCoverFileName());
-            throw new IllegalArgumentException("Could not read file: " + textBook.getCoverFileName());
-        }
-
-        return resource;
+        return storageService.loadFile(textBook.getCoverFileName(), StorageDirectory.TEXTBOOK_COVER);
     }
 
+    /**
+     * This method uploads the cover of a textbook.
+     * The cover is streamed to the storage, which checks that it is a PNG image,
+     * and no transaction is held while it is written.
+     * The previous cover is read and released in the same transaction as the new one is saved,
+     * and only the cover column is written, so a concurrent update of the textbook is not overwritten.
+     *
+     * @param textBookID the ID of the textbook
+     * @param file       the cover of the textbook
+     * @throws IOException if an I/O error occurs
+     */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void uploadTextBookCover(Integer textBookID, MultipartFile file) throws IOException {
         if (file == null || file.isEmpty()) {
             log.error("Failed to store empty or null file");
             throw new IOException("Failed to store empty file");
         }
 
-        if (!getFileExtension(Objects.requireNonNull(file.getOriginalFilename())).equals("png")){
-            log.error("Failed to store file with invalid extension");
-            throw new IOException("Failed to store file with invalid extension. Only PNG files are allowed.");
-        }
-
         var textBook = textBookRepository
                 .findById(textBookID)
                 .orElseThrow(() -> new IllegalArgumentException("Textbook not found"));
 
-        String fileName = textBook.getIsbn() + "_" +
-                System.currentTimeMillis() + "." +
-                getFileExtension(Objects.requireNonNull(file.getOriginalFilename()));
+        String fileName = textBook.getIsbn() + "_" + System.currentTimeMillis() + ".png";
 
-        textBook.setCoverFileName(fileName);
-
-        textBookRepository.save(textBook);
+        String storedName;
+        try (InputStream content = file.getInputStream()) {
+            storedName = storageService.store(fileName, content, StorageDirectory.TEXTBOOK_COVER);
+        }
 
-        storageService.store(fileName, file.getBytes(), StorageDirectory.TEXTBOOK_COVER);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                String previousName = textBookRepository.findCoverFileNameById(textBookID).orElse(null);
+                textBookRepository.updateCoverFileName(textBookID, storedName);
+                storageService.release(previousName, StorageDirectory.TEXTBOOK_COVER);
+            });
+        } catch (RuntimeException e) {
+            storageService.release(storedName, StorageDirectory.TEXTBOOK_COVER);
+            throw e;
+        }
     }
 
     @Override
@@ -566,6 +567,7 @@ public class TeacherServiceImpl implements TeacherService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TextBookResponse> getTextBooksByCourse(String courseCode) {
         log.info("Getting textbooks by course: {}", courseCode);
 
@@ -589,7 +591,11 @@ public class TeacherServiceImpl implements TeacherService {
                 .toList();
     }
 
-    private String getFileExtension(@NonNull String fileName) {
-        return fileName.substring(fileName.lastIndexOf(".") + 1).toLowerCase();
+    @Override
+    @Transactional(readOnly = true)
+    public ResourceVersion getTextBooksByCourseVersion(String courseCode) {
+        return courseRepository
+                .findTextBooksVersion(courseCode)
+                .orElseThrow(() -> new IllegalArgumentException("Course not found"));
     }
 }
@@ -3,6 +3,8 @@ package org.example.schoolmanagementsystemspring.textbook;
 import jakarta.persistence.*;
 import lombok.*;
 import org.example.schoolmanagementsystemspring.course.Course;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedBy;
@@ -25,6 +27,7 @@ import java.util.List;
 @Builder
 @Entity
 @Table(name = "textbook")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @EntityListeners(AuditingEntityListener.class)
 public class TextBook {
 
@@ -1,7 +1,11 @@
 package org.example.schoolmanagementsystemspring.textbook;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.lang.NonNull;
 
 import java.util.Optional;
@@ -10,6 +14,18 @@ public interface TextBookRepository extends JpaRepository<TextBook, Integer> {
     @Query("select (count(t) > 0) from TextBook t where t.isbn = ?1")
     boolean existsByIsbn(@NonNull String isbn);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("select t from TextBook t where t.isbn = ?1")
     Optional<TextBook> findByIsbn(@NonNull String isbn);
+
+    @Query("select t.coverFileName from TextBook t where t.id = ?1")
+    Optional<String> findCoverFileNameById(@NonNull Integer id);
+
+    /**
+     * The updateCoverFileName method sets the cover of a textbook in a single statement,
+     * without writing the other columns of the textbook.
+     */
+    @Modifying
+    @Query("update TextBook t set t.coverFileName = ?2 where t.id = ?1")
+    int updateCoverFileName(@NonNull Integer id, @NonNull String coverFileName);
 }
\ No newline at end of file
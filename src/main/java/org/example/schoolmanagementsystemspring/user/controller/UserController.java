@@ -4,16 +4,23 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.schoolmanagementsystemspring.storage.FileResponseWriter;
+import org.example.schoolmanagementsystemspring.storage.StorageDirectory;
+import org.example.schoolmanagementsystemspring.storage.StoredFile;
+import org.example.schoolmanagementsystemspring.storage.ThumbnailService;
 import org.example.schoolmanagementsystemspring.user.dto.UserDto;
 import org.example.schoolmanagementsystemspring.user.dto.UserRequestDto;
+import org.example.schoolmanagementsystemspring.user.dto.UserUpdateRequestDto;
 import org.example.schoolmanagementsystemspring.user.entity.Role;
 import org.example.schoolmanagementsystemspring.user.exception.UserNotFoundException;
 import org.example.schoolmanagementsystemspring.user.service.UserService;
-import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -54,6 +61,10 @@ public class UserController {
 
     private final UserService service;
 
+    private final FileResponseWriter fileResponseWriter;
+
+    private final ThumbnailService thumbnailService;
+
     /**
      * The getAllUsers method handles GET requests to get all users.
      * It uses the UserService to get all users.
@@ -118,7 +129,7 @@ public class UserController {
      * It logs the operation.
      *
      * @param userID  the ID of the user.
-     * @param request the UserRequestDto object that contains the new user data.
+     * @param request the UserUpdateRequestDto object that contains the new user data, the password is optional.
      * @return a UserDto object.
      * @throws UserNotFoundException if the user is not found.
      *//*
@@ -126,7 +137,7 @@ public class UserController {
     @PutMapping("/{userID}")
     @PreAuthorize("hasRole('ADMIN') and hasAuthority('admin:update')")
     @ResponseStatus(HttpStatus.OK)
-    public UserDto updateUser(@PathVariable Integer userID, @Valid @RequestBody UserRequestDto request) throws UserNotFoundException {
+    public UserDto updateUser(@PathVariable Integer userID, @Valid @RequestBody UserUpdateRequestDto request) throws UserNotFoundException {
         log.info("Updating user with ID {}", userID);
         return service.updateUser(userID, request);
     }*/
@@ -168,24 +179,29 @@ public class UserController {
 
     /**
      * The downloadUserImage method handles GET requests to download a user image.
-     * It uses the UserService to download the user image.
-     * It returns a ResponseEntity that contains the user image.
+     * It uses the UserService to find the user image and the FileResponseWriter to write it,
+     * which answers conditional and range requests.
+     * If a size is given, a thumbnail of the image that fits the size is written instead.
      * It logs the operation.
      *
-     * @param auth the Authentication object that contains the user authentication.
-     * @return a ResponseEntity that contains the user image.
+     * @param size     the maximum width and height of the image, in pixels, or null for the original image.
+     * @param auth     the Authentication object that contains the user authentication.
+     * @param request  the HTTP request.
+     * @param response the HTTP response.
      * @throws UserNotFoundException if the user is not found.
+     * @throws IOException           if an I/O error occurs while writing the image.
      */
     @Operation(summary = "Download User Image", description = "Download user image in the system.")
     @GetMapping(value = "/profile-image")
     @PreAuthorize("hasAnyRole('ADMIN', 'TEACHER', 'STUDENT', 'PARENT')")
-    public ResponseEntity<Resource> downloadUserImage(Authentication auth) throws UserNotFoundException {
+    public void downloadUserImage(@RequestParam(required = false) Integer size, Authentication auth, HttpServletRequest request, HttpServletResponse response) throws UserNotFoundException, IOException {
         log.info("Download user {} image", auth.getName());
-        Resource result = service.downloadUserImage(auth);
-        return ResponseEntity.ok()
-                .header("Content-Disposition", "attachment; filename=\"" + result.getFilename() + "\"")
-                .contentType(MediaType.parseMediaType("image/png"))
-                .body(result);
+        StoredFile result = service.downloadUserImage(auth);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + result.getFilename() + "\"");
+        if (size == null)
+            fileResponseWriter.write(result, MediaType.IMAGE_PNG, request, response);
+        else
+            fileResponseWriter.write(thumbnailService.getThumbnail(result, StorageDirectory.PROFILE_IMAGE, size), MediaType.IMAGE_PNG, request, response);
     }
 
     @Operation(summary = "Get User Role", description = "Get user role in the system.")
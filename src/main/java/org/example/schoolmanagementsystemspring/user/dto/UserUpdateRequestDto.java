@@ -0,0 +1,36 @@
+package org.example.schoolmanagementsystemspring.user.dto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.ToString;
+
+/**
+ * The UserUpdateRequestDto record contains the new data of a user.
+ * The password is optional: when it is omitted, the stored password is kept and no hash is computed.
+ *
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+
+public record UserUpdateRequestDto(
+
+        @NotBlank(message = "First name mustn't be null or empty")
+        @Size(min = 5, max = 100, message = "First name must be between 5 and 100 characters")
+        String firstName,
+
+        @NotBlank(message = "Last name mustn't be null or empty")
+        @Size(min = 5, max = 100, message = "Last name must be between 5 and 100 characters")
+        String lastName,
+
+        @NotBlank(message = "Email mustn't be null or empty")
+        @Size(min = 6, max = 255, message = "Email must be between 6 and 255 characters")
+        @Email(message = "Email must be a valid email", regexp = "^(.+)@(.+)$")
+        String email,
+
+        @Size(min = 8, max = 255, message = "Password must be between 8 and 255 characters")
+        @ToString.Exclude
+        String password
+) {
+}
@@ -4,9 +4,14 @@ import lombok.Getter;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.stream.Stream;
 
 /**
+ * The Role enum defines the roles of the users and their permissions.
+ * The authorities of each role are computed once when the enum is loaded and shared as immutable lists,
+ * so authenticating a request or generating a token does not allocate new authority objects.
+ *
  * @author FFreitas
  * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
  * <a href="https://github.com/FFreitas997/">Github</a>
@@ -38,14 +43,34 @@ public enum Role {
 
     private final List<Permission> permissions;
 
-    Role(Permission... permissions) { this.permissions = List.of(permissions); }
+    /**
+     * The permissions of the role followed by the "ROLE_" authority, as an immutable list.
+     */
+    private final List<SimpleGrantedAuthority> authorities;
 
-    public List<SimpleGrantedAuthority> getAuthorities() {
-        List<SimpleGrantedAuthority> authorities = permissions
+    /**
+     * The names of the authorities of the role, in the same order as the authorities.
+     */
+    private final List<String> authorityNames;
+
+    /**
+     * The authorities of the role in the form they are serialized in the "authorities" claim of a JWT.
+     */
+    private final List<Map<String, String>> authorityClaims;
+
+    Role(Permission... permissions) {
+        this.permissions = List.of(permissions);
+        this.authorities = Stream
+                .concat(this.permissions.stream().map(Permission::getValue), Stream.of("ROLE_" + name()))
+                .map(SimpleGrantedAuthority::new)
+                .toList();
+        this.authorityNames = authorities
+                .stream()
+                .map(SimpleGrantedAuthority::getAuthority)
+                .toList();
+        this.authorityClaims = authorityNames
                 .stream()
-                .map(permission -> new SimpleGrantedAuthority(permission.getValue()))
-                .collect(Collectors.toList());
-        authorities.add(new SimpleGrantedAuthority("ROLE_" + this.name()));
-        return authorities;
+                .map(authority -> Map.of("authority", authority))
+                .toList();
     }
 }
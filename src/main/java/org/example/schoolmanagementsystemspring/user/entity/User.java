@@ -6,6 +6,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.ColumnDefault;
 import org.example.schoolmanagementsystemspring.authentication.entity.Token;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
@@ -84,6 +85,10 @@ public class User implements UserDetails, Principal {
     @Column(name = "profile_image")
     private String profileImage;
 
+    @Column(name = "token_version", nullable = false)
+    @ColumnDefault("0")
+    private int tokenVersion;
+
     @OneToMany(mappedBy = "user", fetch = FetchType.LAZY, cascade = CascadeType.ALL)
     private transient List<Token> tokens;
 
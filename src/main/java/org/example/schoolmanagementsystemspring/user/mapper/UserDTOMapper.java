@@ -25,13 +25,7 @@ public class UserDTOMapper implements Function<User, UserDto> {
                 .lastName(user.getLastName())
                 .email(user.getEmail())
                 .role(user.getRole().name())
-                .authorities(
-                        user
-                                .getAuthorities()
-                                .stream()
-                                .map(Object::toString)
-                                .toList()
-                )
+                .authorities(user.getRole().getAuthorityNames())
                 .build();
     }
 }
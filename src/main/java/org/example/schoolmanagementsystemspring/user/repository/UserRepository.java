@@ -2,12 +2,15 @@ package org.example.schoolmanagementsystemspring.user.repository;
 
 import org.example.schoolmanagementsystemspring.user.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * The UserRepository interface extends JpaRepository and provides methods for querying User entities.
@@ -50,4 +53,56 @@ public interface UserRepository extends JpaRepository<User, Integer> {
 
     @Query("select (count(u) > 0) from User u where u.email = ?1")
     boolean existsByEmail(@NonNull String email);
-}
\ No newline at end of file
+
+    /**
+     * The findExistingEmails method finds which of the given emails are already registered, with a single query.
+     *
+     * @param emails the emails to check.
+     * @return the emails that are already registered.
+     */
+    @Query("select u.email from User u where u.email in :emails")
+    Set<String> findExistingEmails(Collection<String> emails);
+
+    /**
+     * The findTokenVersionById method finds the current token version of a user.
+     * It takes a user ID as a parameter.
+     * It returns an Optional of Integer.
+     *
+     * @param id the ID of the user.
+     * @return an Optional of Integer with the token version of the user.
+     */
+    @Query("select u.tokenVersion from User u where u.id = ?1")
+    Optional<Integer> findTokenVersionById(@NonNull Integer id);
+
+    /**
+     * The incrementTokenVersion method increments the token version of a user in a single statement.
+     * Every token signed with a previous version stops being valid in the token version mode.
+     *
+     * @param id the ID of the user.
+     * @return the number of updated rows.
+     */
+    @Modifying
+    @Query("update User u set u.tokenVersion = u.tokenVersion + 1 where u.id = ?1")
+    int incrementTokenVersion(@NonNull Integer id);
+
+    /**
+     * The findProfileImageById method finds the name of the profile image of a user.
+     *
+     * @param id the ID of the user.
+     * @return an Optional of String with the name of the profile image, empty if the user has no image.
+     */
+    @Query("select u.profileImage from User u where u.id = ?1")
+    Optional<String> findProfileImageById(@NonNull Integer id);
+
+    /**
+     * The updateProfileImage method sets the profile image of a user in a single statement,
+     * without writing the other columns of the user.
+     *
+     * @param id           the ID of the user.
+     * @param profileImage the name of the profile image.
+     * @return the number of updated rows.
+     */
+    @Modifying
+    @Query("update User u set u.profileImage = ?2 where u.id = ?1")
+    int updateProfileImage(@NonNull Integer id, @NonNull String profileImage);
+}
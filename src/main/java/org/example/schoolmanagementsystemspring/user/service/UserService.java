@@ -1,10 +1,11 @@
 package org.example.schoolmanagementsystemspring.user.service;
 
+import org.example.schoolmanagementsystemspring.storage.StoredFile;
 import org.example.schoolmanagementsystemspring.user.dto.UserRequestDto;
+import org.example.schoolmanagementsystemspring.user.dto.UserUpdateRequestDto;
 import org.example.schoolmanagementsystemspring.user.dto.UserDto;
 import org.example.schoolmanagementsystemspring.user.entity.Role;
 import org.example.schoolmanagementsystemspring.user.exception.UserNotFoundException;
-import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.multipart.MultipartFile;
@@ -63,16 +64,16 @@ public interface UserService {
 
     /**
      * The updateUser method updates a user.
-     * It takes a user ID and a UserRequestDto object as parameters.
+     * It takes a user ID and a UserUpdateRequestDto object as parameters.
      * It returns a UserDto object.
      * It throws a UserNotFoundException if the user is not found.
      *
      * @param userID the ID of the user.
-     * @param user   the UserRequestDto object that contains the new user data.
+     * @param user   the UserUpdateRequestDto object that contains the new user data, the password is optional.
      * @return a UserDto object.
      * @throws UserNotFoundException if the user is not found.
      */
-    UserDto updateUser(Integer userID, UserRequestDto user) throws UserNotFoundException;
+    UserDto updateUser(Integer userID, UserUpdateRequestDto user) throws UserNotFoundException;
 
     /**
      * The deleteUser method deletes a user.
@@ -98,14 +99,14 @@ public interface UserService {
     /**
      * The downloadUserImage method downloads a user image.
      * It takes an Authentication object as a parameter.
-     * It returns a Resource object that represents the user image.
+     * It returns a StoredFile object that represents the user image.
      * It throws a UserNotFoundException if the user is not found.
      *
      * @param auth the Authentication object that contains the user authentication.
-     * @return a Resource object that represents the user image.
+     * @return a StoredFile object that represents the user image.
      * @throws UserNotFoundException if the user is not found.
      */
-    Resource downloadUserImage(Authentication auth) throws UserNotFoundException;
+    StoredFile downloadUserImage(Authentication auth) throws UserNotFoundException;
 
     Role getUserRole(Authentication auth) throws UserNotFoundException;
 }
\ No newline at end of file
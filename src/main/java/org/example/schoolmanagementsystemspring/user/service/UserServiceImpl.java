@@ -1,28 +1,40 @@
 package org.example.schoolmanagementsystemspring.user.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.schoolmanagementsystemspring.authentication.service.PasswordHashService;
+import org.example.schoolmanagementsystemspring.authentication.service.TokenCacheService;
+import org.example.schoolmanagementsystemspring.authentication.service.TokenVersionService;
 import org.example.schoolmanagementsystemspring.storage.StorageDirectory;
 import org.example.schoolmanagementsystemspring.storage.StorageService;
+import org.example.schoolmanagementsystemspring.storage.StoredFile;
+import org.example.schoolmanagementsystemspring.storage.ThumbnailService;
 import org.example.schoolmanagementsystemspring.user.dto.UserRequestDto;
+import org.example.schoolmanagementsystemspring.user.dto.UserUpdateRequestDto;
 import org.example.schoolmanagementsystemspring.user.dto.UserDto;
 import org.example.schoolmanagementsystemspring.user.entity.Role;
 import org.example.schoolmanagementsystemspring.user.entity.User;
 import org.example.schoolmanagementsystemspring.user.exception.UserNotFoundException;
 import org.example.schoolmanagementsystemspring.user.mapper.UserDTOMapper;
 import org.example.schoolmanagementsystemspring.user.repository.UserRepository;
-import org.springframework.core.io.Resource;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.lang.NonNull;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
 import java.util.Objects;
 
 /**
@@ -31,6 +43,7 @@ import java.util.Objects;
  * It provides methods for getting all users, getting a user by ID, creating a user, updating a user, deleting a user, uploading a user image, and downloading a user image.
  * It uses the @Service, @Transactional, and @RequiredArgsConstructor annotations to define its behavior.
  * It uses the log object to log information about its operations.
+ * The profile image name of each user is cached, so repeated downloads of a profile image do not query the database.
  *
  * @author FFreitas
  * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
@@ -43,9 +56,33 @@ import java.util.Objects;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository repository;
-    private final PasswordEncoder encoder;
+    private final PasswordHashService passwordHashService;
+    private final TransactionTemplate transactionTemplate;
     private final UserDTOMapper userDTOMapper;
     private final StorageService storageService;
+    private final TokenCacheService tokenCacheService;
+    private final TokenVersionService tokenVersionService;
+    private final ThumbnailService thumbnailService;
+
+    @Value("${storage.metadata-cache.maximum-size}")
+    private long maximumSize;
+
+    @Value("${storage.metadata-cache.expire-after-write}")
+    private Duration expireAfterWrite;
+
+    private Cache<String, String> profileImages;
+
+    /**
+     * The init method builds the cache of the profile image names, by user email.
+     */
+    @PostConstruct
+    public void init() {
+        profileImages = Caffeine
+                .newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
 
     /**
      * The getAllUsers method gets all users.
@@ -58,6 +95,7 @@ public class UserServiceImpl implements UserService {
      * @return a Page of UserDto objects.
      */
     @Override
+    @Transactional(readOnly = true)
     public Page<UserDto> getAllUsers(int page, int size) {
         if (size <= 0) size = 10;
         if (page < 0) page = 0;
@@ -79,6 +117,7 @@ public class UserServiceImpl implements UserService {
      * @throws UserNotFoundException if the user is not found.
      */
     @Override
+    @Transactional(readOnly = true)
     public UserDto getUserById(Integer userID) throws UserNotFoundException {
         User response = repository
                 .findById(userID)
@@ -91,18 +130,20 @@ public class UserServiceImpl implements UserService {
      * It takes a UserRequestDto object as a parameter.
      * It returns a UserDto object.
      * It logs the operation.
+     * The password is hashed before the user is saved, outside of any transaction.
      *
      * @param user the UserRequestDto object that contains the user data.
      * @return a UserDto object.
      */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public UserDto createUser(UserRequestDto user) {
         User newUser = User
                 .builder()
                 .firstName(user.firstName())
                 .lastName(user.lastName())
                 .email(user.email())
-                .password(encoder.encode(user.password()))
+                .password(passwordHashService.encode(user.password()))
                 .role(user.role())
                 .isEnabled(true)
                 .build();
@@ -112,35 +153,53 @@ public class UserServiceImpl implements UserService {
 
     /**
      * The updateUser method updates a user.
-     * It takes a user ID and a UserRequestDto object as parameters.
+     * It takes a user ID and a UserUpdateRequestDto object as parameters.
+     * The password is only hashed and replaced when a new one is given, otherwise the stored hash is kept.
+     * The new password is hashed before the transaction starts, so no database connection is held while hashing.
+     * After the commit, the cached tokens and the cached profile image of the user are removed,
+     * so the tokens of the user do not keep the previous email or password as the principal.
      * It returns a UserDto object.
      * It logs the operation.
      * It throws a UserNotFoundException if the user is not found.
      *
      * @param userID the ID of the user.
-     * @param user the UserRequestDto object that contains the new user data.
+     * @param user the UserUpdateRequestDto object that contains the new user data.
      * @return a UserDto object.
      * @throws UserNotFoundException if the user is not found.
      */
     @Override
-    public UserDto updateUser(Integer userID, UserRequestDto user) throws UserNotFoundException {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public UserDto updateUser(Integer userID, UserUpdateRequestDto user) throws UserNotFoundException {
         if (userID == null || user == null) {
             throw new IllegalArgumentException("Missing user ID or information to update");
         }
-        User model = repository
+        String password = user.password() == null || user.password().isBlank() ? null : passwordHashService.encode(user.password());
+        String[] previousEmail = new String[1];
+        User response = transactionTemplate.execute(status -> repository
                 .findById(userID)
-                .orElseThrow(() -> new UserNotFoundException("User not found with ID: " + userID));
-        model.setFirstName(user.firstName());
-        model.setLastName(user.lastName());
-        model.setEmail(user.email());
-        model.setPassword(encoder.encode(user.password()));
-        User response = repository.save(model);
+                .map(model -> {
+                    previousEmail[0] = model.getEmail();
+                    model.setFirstName(user.firstName());
+                    model.setLastName(user.lastName());
+                    model.setEmail(user.email());
+                    if (password != null)
+                        model.setPassword(password);
+                    return repository.save(model);
+                })
+                .orElse(null));
+        if (response == null)
+            throw new UserNotFoundException("User not found with ID: " + userID);
+        profileImages.invalidate(previousEmail[0]);
+        profileImages.invalidate(response.getEmail());
+        tokenCacheService.invalidateUser(response.getId());
         return userDTOMapper.apply(response);
     }
 
     /**
      * The deleteUser method deletes a user.
      * It takes a user ID as a parameter.
+     * It disables the user, removes the cached tokens of the user and increments the token version of the user,
+     * so the tokens of the user stop authenticating right away in both authentication modes.
      * It logs the operation.
      *
      * @param userID the ID of the user.
@@ -152,11 +211,20 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new UserNotFoundException("User not found with ID: " + userID));
         response.setEnabled(false);
         repository.save(response);
+        profileImages.invalidate(response.getEmail());
+        tokenCacheService.invalidateUser(response.getId());
+        tokenVersionService.revoke(response);
     }
 
     /**
      * The uploadUserImage method uploads a user image.
      * It takes an Authentication object and a MultipartFile object as parameters.
+     * The image is streamed to the storage, which checks that it is a PNG image,
+     * and no transaction is held while it is written.
+     * The previous image of the user is read and released in the same transaction as the new one is saved,
+     * and its thumbnails are removed from the caches.
+     * Only the profile image column is written, so a concurrent update of the user is not overwritten
+     * by the copy loaded before the upload.
      * It logs the operation.
      * It throws an IOException if an I/O error occurs.
      * It throws a UserNotFoundException if the user is not found.
@@ -167,80 +235,83 @@ public class UserServiceImpl implements UserService {
      * @throws UserNotFoundException if the user is not found.
      */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void uploadUserImage(Authentication auth, MultipartFile file) throws IOException, UserNotFoundException {
         if (file == null || file.isEmpty()) {
             log.error("Failed to store empty or null file");
             throw new IOException("Failed to store empty file");
         }
 
-        if (!getFileExtension(Objects.requireNonNull(file.getOriginalFilename())).equals("png")){
-            log.error("Failed to store file with invalid extension");
-            throw new IOException("Failed to store file with invalid extension. Only PNG files are allowed.");
-        }
-
         User user = repository.findByEmailValid(auth.getName())
                 .orElseThrow(() -> new UserNotFoundException("User not found: " + auth.getName()));
 
         String fileName = buildFileName(user, file);
 
-        user.setProfileImage(fileName);
-        repository.save(user);
+        String storedName;
+        try (InputStream content = file.getInputStream()) {
+            storedName = storageService.store(fileName, content, StorageDirectory.PROFILE_IMAGE);
+        }
 
-        storageService.store(fileName, file.getBytes(), StorageDirectory.PROFILE_IMAGE).handle(this::handleStoreImage);
+        String previousName;
+        try {
+            previousName = transactionTemplate.execute(status -> {
+                String previous = repository.findProfileImageById(user.getId()).orElse(null);
+                repository.updateProfileImage(user.getId(), storedName);
+                storageService.release(previous, StorageDirectory.PROFILE_IMAGE);
+                return previous;
+            });
+        } catch (RuntimeException e) {
+            storageService.release(storedName, StorageDirectory.PROFILE_IMAGE);
+            throw e;
+        }
+        profileImages.put(user.getEmail(), storedName);
+        if (!storedName.equals(previousName))
+            thumbnailService.invalidate(previousName, StorageDirectory.PROFILE_IMAGE);
     }
 
     /**
      * The downloadUserImage method downloads a user image.
      * It takes an Authentication object as a parameter.
-     * It returns a Resource object that represents the user image.
-     * It logs the operation.
+     * It returns a StoredFile object that represents the user image.
+     * The profile image name is read from the database only when it is not cached,
+     * and no transaction is started, so a cached download does not take a database connection.
      * It throws a UserNotFoundException if the user is not found.
      *
      * @param auth the Authentication object that contains the user authentication.
-     * @return a Resource object that represents the user image.
+     * @return a StoredFile object that represents the user image.
      * @throws UserNotFoundException if the user is not found.
      */
     @Override
-    public Resource downloadUserImage(Authentication auth) throws UserNotFoundException {
-        User user = repository.findByEmailValid(auth.getName())
-                .orElseThrow(() -> new UserNotFoundException("User not found: " + auth.getName()));
-
-        var resource = storageService.loadResource(user.getProfileImage(), StorageDirectory.PROFILE_IMAGE);
-
-        if (resource == null || !resource.exists() || !resource.isReadable()) {
-            log.error("Could not read file: {}", user.getProfileImage());
-            throw new IllegalArgumentException("Could not read file: " + user.getProfileImage());
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public StoredFile downloadUserImage(Authentication auth) throws UserNotFoundException {
+        String fileName = profileImages.getIfPresent(auth.getName());
+        if (fileName == null) {
+            User user = repository.findByEmailValid(auth.getName())
+                    .orElseThrow(() -> new UserNotFoundException("User not found: " + auth.getName()));
+            fileName = user.getProfileImage();
+            if (fileName != null)
+                profileImages.put(auth.getName(), fileName);
         }
-
-        return resource;
+        return storageService.loadFile(fileName, StorageDirectory.PROFILE_IMAGE);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Role getUserRole(Authentication auth) throws UserNotFoundException {
         User user = repository.findByEmailValid(auth.getName())
                 .orElseThrow(() -> new UserNotFoundException("User not found: " + auth.getName()));
         return user.getRole();
     }
 
-    private String getFileExtension(@NonNull String fileName) {
-        return fileName.substring(fileName.lastIndexOf(".") + 1).toLowerCase();
-    }
-
     private String getFileName(@NonNull String fileName) {
-        return fileName.substring(0, fileName.lastIndexOf("."));
-    }
-
-    private <S> S handleStoreImage(S result, Throwable throwable) {
-        if (throwable != null)
-            log.error("Error storing image: {}", throwable.getMessage());
-        return result;
+        int extension = fileName.lastIndexOf(".");
+        return extension < 0 ? fileName : fileName.substring(0, extension);
     }
 
     private String buildFileName(User user, MultipartFile file) {
         return user.getFirstName() + "_" +
                 user.getLastName() + "_" +
                 getFileName(Objects.requireNonNull(file.getOriginalFilename())) + "_" +
-                System.currentTimeMillis() + "." +
-                getFileExtension(Objects.requireNonNull(file.getOriginalFilename()));
+                System.currentTimeMillis() + ".png";
     }
 }
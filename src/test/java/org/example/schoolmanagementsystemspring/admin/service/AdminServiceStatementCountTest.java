@@ -0,0 +1,203 @@
+package org.example.schoolmanagementsystemspring.admin.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.example.schoolmanagementsystemspring.admin.dto.ResponseCourse;
+import org.example.schoolmanagementsystemspring.admin.dto.ResponseParent;
+import org.example.schoolmanagementsystemspring.admin.dto.ResponseStudent;
+import org.example.schoolmanagementsystemspring.admin.dto.ResponseTeacher;
+import org.example.schoolmanagementsystemspring.course.Course;
+import org.example.schoolmanagementsystemspring.course.CourseRepository;
+import org.example.schoolmanagementsystemspring.parent.entity.Parent;
+import org.example.schoolmanagementsystemspring.parent.entity.ParentType;
+import org.example.schoolmanagementsystemspring.parent.repository.ParentRepository;
+import org.example.schoolmanagementsystemspring.school.entity.School;
+import org.example.schoolmanagementsystemspring.school.entity.SchoolType;
+import org.example.schoolmanagementsystemspring.school.repository.SchoolRepository;
+import org.example.schoolmanagementsystemspring.student.entity.GradeLevel;
+import org.example.schoolmanagementsystemspring.student.entity.Student;
+import org.example.schoolmanagementsystemspring.student.repository.StudentRepository;
+import org.example.schoolmanagementsystemspring.teacher.entity.Teacher;
+import org.example.schoolmanagementsystemspring.teacher.repository.TeacherRepository;
+import org.example.schoolmanagementsystemspring.user.entity.Role;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.Page;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Asserts the number of statements each admin page issues, so a page that loads its associations row by row fails the build.
+ *
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+@Testcontainers
+@Transactional
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true"
+)
+class AdminServiceStatementCountTest {
+
+    private static final int ROWS = 50;
+
+    // the page query and the count query
+    private static final long PAGE_STATEMENTS = 2;
+
+    @Container
+    @ServiceConnection
+    private static final PostgreSQLContainer<?> container = new PostgreSQLContainer<>("postgres:latest");
+
+    @Autowired
+    AdminService adminService;
+
+    @Autowired
+    SchoolRepository schoolRepository;
+
+    @Autowired
+    TeacherRepository teacherRepository;
+
+    @Autowired
+    StudentRepository studentRepository;
+
+    @Autowired
+    ParentRepository parentRepository;
+
+    @Autowired
+    CourseRepository courseRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        IntStream.range(0, ROWS).forEach(this::createRow);
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    @Test
+    void getTeachersTest() {
+        Page<ResponseTeacher> page = adminService.getTeachers(0, ROWS);
+
+        assertEquals(ROWS, page.getNumberOfElements());
+        assertEquals(PAGE_STATEMENTS, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void getStudentsTest() {
+        Page<ResponseStudent> page = adminService.getStudents(0, ROWS);
+
+        assertEquals(ROWS, page.getNumberOfElements());
+        assertEquals(PAGE_STATEMENTS, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void getCoursesTest() {
+        Page<ResponseCourse> page = adminService.getCourses(0, ROWS);
+
+        assertEquals(ROWS, page.getNumberOfElements());
+        assertNotNull(page.getContent().get(0).teacher().email());
+        assertNotNull(page.getContent().get(0).school().name());
+        assertEquals(PAGE_STATEMENTS, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void getParentsTest() {
+        Page<ResponseParent> page = adminService.getParents(0, ROWS);
+
+        assertEquals(ROWS, page.getNumberOfElements());
+        assertNotNull(page.getContent().get(0).studentResponsible().email());
+        assertEquals(PAGE_STATEMENTS, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    private void createRow(int index) {
+        School school = schoolRepository.save(
+                School
+                        .builder()
+                        .name("School " + index)
+                        .schoolType(SchoolType.PRIMARY)
+                        .email("school" + index + "@gmail.com")
+                        .phoneNumber(String.valueOf(900000000 + index))
+                        .build()
+        );
+        Teacher teacher = teacherRepository.save(
+                Teacher
+                        .builder()
+                        .firstName("Teacher")
+                        .lastName("Number " + index)
+                        .email("teacher" + index + "@gmail.com")
+                        .password("password")
+                        .role(Role.TEACHER)
+                        .isEnabled(true)
+                        .phoneNumber("912345678")
+                        .department("Mathematics")
+                        .school(school)
+                        .build()
+        );
+        Student student = studentRepository.save(
+                Student
+                        .builder()
+                        .firstName("Student")
+                        .lastName("Number " + index)
+                        .email("student" + index + "@gmail.com")
+                        .password("password")
+                        .role(Role.STUDENT)
+                        .isEnabled(true)
+                        .studentIdentification("S" + index)
+                        .gradeLevel(GradeLevel.FIRST_GRADE)
+                        .teacherResponsible(teacher)
+                        .school(school)
+                        .build()
+        );
+        parentRepository.save(
+                Parent
+                        .builder()
+                        .firstName("Parent")
+                        .lastName("Number " + index)
+                        .email("parent" + index + "@gmail.com")
+                        .password("password")
+                        .role(Role.PARENT)
+                        .isEnabled(true)
+                        .phoneNumber("912345678")
+                        .type(ParentType.MOTHER)
+                        .occupation("Engineer")
+                        .studentResponsible(student)
+                        .build()
+        );
+        courseRepository.save(
+                Course
+                        .builder()
+                        .courseName("Course " + index)
+                        .courseCode("C" + index)
+                        .gradeLevel(GradeLevel.FIRST_GRADE)
+                        .teacher(teacher)
+                        .school(school)
+                        .build()
+        );
+    }
+}
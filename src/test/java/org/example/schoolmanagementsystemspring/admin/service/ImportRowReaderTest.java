@@ -0,0 +1,72 @@
+package org.example.schoolmanagementsystemspring.admin.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.schoolmanagementsystemspring.admin.dto.ImportFormat;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+class ImportRowReaderTest {
+
+    private static final String LONG_VALUE = "x".repeat(ImportRowReader.MAX_RECORD_LENGTH + 10);
+
+    @Test
+    void longCsvRecordTest() throws IOException {
+        String csv = "firstName,lastName\r\n" + LONG_VALUE + ",Freitas\r\nFrancisco,Freitas\r\n";
+
+        try (ImportRowReader reader = reader(ImportFormat.CSV, csv)) {
+            ImportRowReader.Row tooLong = reader.next();
+            assertEquals(2, tooLong.line());
+            assertEquals("Row is too long", tooLong.error());
+
+            ImportRowReader.Row row = reader.next();
+            assertEquals(3, row.line());
+            assertEquals(Map.of("firstName", "Francisco", "lastName", "Freitas"), row.values());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void longCsvHeaderTest() throws IOException {
+        try (ImportRowReader reader = reader(ImportFormat.CSV, LONG_VALUE + "\nFrancisco\n")) {
+            IOException exception = assertThrows(IOException.class, reader::next);
+            assertEquals("Invalid header: Row is too long", exception.getMessage());
+        }
+    }
+
+    @Test
+    void longQuotedCsvRecordTest() throws IOException {
+        String csv = "firstName,lastName\n\"Francisco\n" + LONG_VALUE + "\",Freitas\n";
+
+        try (ImportRowReader reader = reader(ImportFormat.CSV, csv)) {
+            assertEquals("Row is too long", reader.next().error());
+        }
+    }
+
+    @Test
+    void longJsonLineTest() throws IOException {
+        String ndjson = "{\"firstName\":\"" + LONG_VALUE + "\"}\n{\"firstName\":\"Francisco\"}";
+
+        try (ImportRowReader reader = reader(ImportFormat.NDJSON, ndjson)) {
+            assertEquals("Row is too long", reader.next().error());
+            ImportRowReader.Row row = reader.next();
+            assertEquals(2, row.line());
+            assertEquals(Map.of("firstName", "Francisco"), row.values());
+            assertNull(reader.next());
+        }
+    }
+
+    private ImportRowReader reader(ImportFormat format, String content) {
+        return new ImportRowReader(format, new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), new ObjectMapper());
+    }
+}
@@ -0,0 +1,147 @@
+package org.example.schoolmanagementsystemspring.admin.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.example.schoolmanagementsystemspring.admin.dto.ImportEvent;
+import org.example.schoolmanagementsystemspring.admin.dto.ImportFormat;
+import org.example.schoolmanagementsystemspring.admin.mapper.UserMapper;
+import org.example.schoolmanagementsystemspring.authentication.service.AuthenticationService;
+import org.example.schoolmanagementsystemspring.authentication.service.PasswordHashService;
+import org.example.schoolmanagementsystemspring.school.entity.School;
+import org.example.schoolmanagementsystemspring.school.repository.SchoolRepository;
+import org.example.schoolmanagementsystemspring.student.entity.Student;
+import org.example.schoolmanagementsystemspring.student.mappers.StudentMapper;
+import org.example.schoolmanagementsystemspring.teacher.mappers.TeacherMapper;
+import org.example.schoolmanagementsystemspring.user.entity.User;
+import org.example.schoolmanagementsystemspring.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+class UserImportServiceTest {
+
+    private static final String HEADER = "role,firstName,lastName,email,password,description,birthDate,gradeLevel,schoolID\n";
+
+    private UserRepository userRepository;
+
+    private SchoolRepository schoolRepository;
+
+    private AuthenticationService authenticationService;
+
+    private UserImportService importService;
+
+    private final List<List<User>> saved = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        schoolRepository = mock(SchoolRepository.class);
+        authenticationService = mock(AuthenticationService.class);
+        PasswordHashService passwordHashService = mock(PasswordHashService.class);
+        when(passwordHashService.encodeAll(anyList())).thenAnswer(invocation -> invocation
+                .<List<String>>getArgument(0)
+                .stream()
+                .map(password -> "encoded:" + password)
+                .toList());
+        when(userRepository.saveAll(any())).thenAnswer(invocation -> {
+            saved.add(new ArrayList<>((List<User>) invocation.getArgument(0)));
+            return invocation.getArgument(0);
+        });
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        importService = new UserImportService(objectMapper, validator, userRepository, schoolRepository,
+                new UserMapper(), new StudentMapper(), new TeacherMapper(), passwordHashService, authenticationService,
+                transactionTemplate, mock(EntityManager.class));
+        ReflectionTestUtils.setField(importService, "batchSize", 2);
+    }
+
+    @Test
+    void importCsvTest() throws Exception {
+        School school = School.builder().id(1).name("School").build();
+        when(schoolRepository.findAllById(any())).thenReturn(List.of(school));
+        when(userRepository.findExistingEmails(any())).thenReturn(Set.of("taken@gmail.com"));
+        String csv = HEADER
+                + "STUDENT,Francisco,Freitas,francisco@gmail.com,pass,\"Likes maths, and \"\"science\"\"\",2010-01-01T00:00:00,FIRST_GRADE,1\n"
+                + "STUDENT,Francisco,Freitas,taken@gmail.com,pass,,2010-01-01T00:00:00,FIRST_GRADE,1\n"
+                + "STUDENT,Francisco,Freitas,other@gmail.com,pass,,2010-01-01T00:00:00,FIRST_GRADE,2\n"
+                + "STUDENT,Fran,Freitas,short@gmail.com,pass,,2010-01-01T00:00:00,FIRST_GRADE,1\n"
+                + "TEACHER,Francisco,Freitas\n";
+        List<ImportEvent> events = new ArrayList<>();
+
+        ImportEvent summary = importService.importUsers(ImportFormat.CSV, stream(csv), events::add);
+
+        assertEquals(5, summary.processed());
+        assertEquals(1, summary.imported());
+        assertEquals(4, summary.failed());
+        assertEquals(1, saved.size());
+        Student student = (Student) saved.get(0).get(0);
+        assertEquals("Likes maths, and \"science\"", student.getDescription());
+        assertEquals("encoded:pass", student.getPassword());
+        assertSame(school, student.getSchool());
+        verify(authenticationService).generateActivationCodes(saved.get(0));
+        // the schools are resolved once per batch
+        verify(schoolRepository, times(2)).findAllById(any());
+        List<String> errors = events.stream().filter(event -> event.type().equals("error")).map(ImportEvent::message).toList();
+        assertEquals(List.of("User already exists", "School not found", "First name must be between 5 and 20 characters", "Expected 9 fields but found 3"), errors);
+        assertEquals(3, events.stream().filter(event -> event.type().equals("progress")).count());
+    }
+
+    @Test
+    void importNdjsonTest() throws Exception {
+        when(userRepository.findExistingEmails(any())).thenReturn(Set.of());
+        String ndjson = """
+                {"role":"ADMIN","firstName":"Francisco","lastName":"Freitas","email":"admin@gmail.com","password":"password123","description":"Admin"}
+                {"role":"ADMIN","firstName":"Francisco","lastName":"Freitas","email":"admin@gmail.com","password":"password123","description":"Admin"}
+
+                {"role":"JANITOR"}
+                not json
+                """;
+        List<ImportEvent> events = new ArrayList<>();
+
+        ImportEvent summary = importService.importUsers(ImportFormat.NDJSON, stream(ndjson), events::add);
+
+        assertEquals(4, summary.processed());
+        assertEquals(1, summary.imported());
+        List<ImportEvent> errors = events.stream().filter(event -> event.type().equals("error")).toList();
+        assertEquals(2, errors.get(0).line());
+        assertEquals("Duplicate email in the file", errors.get(0).message());
+        assertEquals("Unknown role: JANITOR", errors.get(1).message());
+        assertEquals(5, errors.get(2).line());
+        assertTrue(errors.get(2).message().startsWith("Invalid JSON"));
+        verifyNoInteractions(schoolRepository);
+    }
+
+    private ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
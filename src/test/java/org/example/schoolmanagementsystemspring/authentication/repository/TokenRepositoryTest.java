@@ -0,0 +1,118 @@
+package org.example.schoolmanagementsystemspring.authentication.repository;
+
+import org.example.schoolmanagementsystemspring.authentication.entity.Token;
+import org.example.schoolmanagementsystemspring.authentication.entity.TokenType;
+import org.example.schoolmanagementsystemspring.user.entity.Role;
+import org.example.schoolmanagementsystemspring.user.entity.User;
+import org.example.schoolmanagementsystemspring.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+@Testcontainers
+@Transactional
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class TokenRepositoryTest {
+
+    private static final int TOKENS = 2000;
+
+    @Container
+    @ServiceConnection
+    private static final PostgreSQLContainer<?> container = new PostgreSQLContainer<>("postgres:latest");
+
+    @Autowired
+    TokenRepository tokenRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        tokenRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void expireValidTokensByUserIdTest() {
+        User user = userRepository.save(createUser());
+        tokenRepository.saveAll(
+                IntStream
+                        .range(0, TOKENS)
+                        .mapToObj(i -> createToken(user, "token-" + i))
+                        .toList()
+        );
+
+        assertEquals(TOKENS, tokenRepository.expireValidTokensByUserId(user.getId()));
+        assertTrue(tokenRepository.findValidTokensByUserId(user.getId()).isEmpty());
+        assertEquals(0, tokenRepository.expireValidTokensByUserId(user.getId()));
+    }
+
+    @Test
+    void findPurgeableIdsTest() {
+        User user = userRepository.save(createUser());
+        Token valid = tokenRepository.save(createToken(user, "valid"));
+        Token expired = createToken(user, "expired");
+        expired.setExpired(true);
+        expired = tokenRepository.save(expired);
+        LocalDateTime limit = LocalDateTime.now().minusMinutes(5);
+
+        List<Integer> ids = tokenRepository.findPurgeableIds(Integer.MIN_VALUE, limit, limit, PageRequest.of(0, 10));
+
+        assertEquals(List.of(expired.getId()), ids);
+        assertEquals(1, tokenRepository.countPurgeable(limit, limit));
+        assertEquals(1, tokenRepository.deleteByIds(ids));
+        assertTrue(tokenRepository.findById(valid.getId()).isPresent());
+    }
+
+    @Test
+    void findByTokenTest() {
+        User user = userRepository.save(createUser());
+        Token token = tokenRepository.save(createToken(user, "token"));
+
+        assertEquals(32, token.getHash().length);
+        assertEquals(token.getId(), tokenRepository.findByTokenValid("token").orElseThrow().getId());
+        assertEquals(token.getId(), tokenRepository.findByValueAndType("token", TokenType.BEARER).orElseThrow().getId());
+        assertTrue(tokenRepository.findByToken("other").isEmpty());
+        assertTrue(tokenRepository.existsByToken("token"));
+    }
+
+    private Token createToken(User user, String value) {
+        return Token
+                .builder()
+                .value(value)
+                .type(TokenType.BEARER)
+                .expired(false)
+                .user(user)
+                .build();
+    }
+
+    private User createUser() {
+        return User
+                .builder()
+                .firstName("Francisco")
+                .lastName("Freitas")
+                .email("francisco.freitas@gmail.com")
+                .password("password")
+                .role(Role.ADMIN)
+                .isEnabled(true)
+                .build();
+    }
+}
@@ -0,0 +1,138 @@
+package org.example.schoolmanagementsystemspring.authentication.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.example.schoolmanagementsystemspring.authentication.entity.AuthenticationMode;
+import org.example.schoolmanagementsystemspring.authentication.entity.Token;
+import org.example.schoolmanagementsystemspring.authentication.repository.TokenRepository;
+import org.example.schoolmanagementsystemspring.user.entity.Role;
+import org.example.schoolmanagementsystemspring.user.entity.User;
+import org.example.schoolmanagementsystemspring.user.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+
+/**
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+class AuthenticationFilterServiceTest {
+
+    private static final String SECRET = "1ziBfO3ls0+XFugZPnPLiLbTWoGDxB8e3W1kKISsJZPfIvstCGVqJEV67f0hqWGtjqvIwuQAEQD23/Pzt5p0/A==";
+
+    private JwtServiceImpl jwtService;
+
+    private UserRepository userRepository;
+
+    private TokenRepository tokenRepository;
+
+    private TokenCacheService tokenCacheService;
+
+    private AuthenticationFilterService filter;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtServiceImpl();
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtService, "expireIn", 300000L);
+        ReflectionTestUtils.setField(jwtService, "expireRefreshTokenIn", 3600000L);
+        ReflectionTestUtils.setField(jwtService, "issuer", "School-Management-System-Spring");
+        jwtService.init();
+        tokenCacheService = new TokenCacheService();
+        ReflectionTestUtils.setField(tokenCacheService, "maximumSize", 100L);
+        tokenCacheService.init();
+        userRepository = mock(UserRepository.class);
+        tokenRepository = mock(TokenRepository.class);
+        filter = new AuthenticationFilterService(jwtService, userRepository, tokenRepository, tokenCacheService, mock(TokenVersionService.class), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(filter, "mode", AuthenticationMode.TOKEN_TABLE);
+        filter.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void validTokenTest() throws Exception {
+        User user = createUser();
+        String token = jwtService.generateToken(user, Collections.emptyMap());
+        when(tokenRepository.findByTokenValid(token)).thenReturn(Optional.of(new Token()));
+        when(userRepository.findByEmailValid(user.getEmail())).thenReturn(Optional.of(user));
+
+        doFilter(token);
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+
+        // the second request is served from the token cache
+        SecurityContextHolder.clearContext();
+        doFilter(token);
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(tokenRepository, times(1)).findByTokenValid(token);
+        verify(userRepository, times(1)).findByEmailValid(user.getEmail());
+    }
+
+    @Test
+    void expiredTokenTest() throws Exception {
+        ReflectionTestUtils.setField(jwtService, "expireIn", -1000L);
+        String token = jwtService.generateToken(createUser(), Collections.emptyMap());
+
+        doFilter(token);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verifyNoInteractions(tokenRepository, userRepository);
+    }
+
+    @Test
+    void garbageTokenTest() throws Exception {
+        doFilter("not-a-token");
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verifyNoInteractions(tokenRepository, userRepository);
+    }
+
+    @Test
+    void revokedTokenTest() throws Exception {
+        String token = jwtService.generateToken(createUser(), Collections.emptyMap());
+        when(tokenRepository.findByTokenValid(token)).thenReturn(Optional.empty());
+
+        doFilter(token);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(userRepository, never()).findByEmailValid(any());
+        assertTrue(tokenCacheService.getUser(token).isEmpty());
+    }
+
+    private void doFilter(String token) throws Exception {
+        MockHttpServletRequest req = new MockHttpServletRequest();
+        req.addHeader(AUTHORIZATION, "Bearer " + token);
+        FilterChain chain = mock(FilterChain.class);
+        filter.doFilter(req, new MockHttpServletResponse(), chain);
+        verify(chain).doFilter(any(), any());
+    }
+
+    private User createUser() {
+        return User
+                .builder()
+                .id(1)
+                .firstName("Francisco")
+                .lastName("Freitas")
+                .email("francisco.freitas@gmail.com")
+                .password("password")
+                .role(Role.TEACHER)
+                .isEnabled(true)
+                .build();
+    }
+}
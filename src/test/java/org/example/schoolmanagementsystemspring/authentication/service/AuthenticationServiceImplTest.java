@@ -0,0 +1,136 @@
+package org.example.schoolmanagementsystemspring.authentication.service;
+
+import org.example.schoolmanagementsystemspring.authentication.dto.AuthenticationRequestDto;
+import org.example.schoolmanagementsystemspring.authentication.dto.AuthenticationResponse;
+import org.example.schoolmanagementsystemspring.authentication.entity.AuthenticationMode;
+import org.example.schoolmanagementsystemspring.authentication.entity.Token;
+import org.example.schoolmanagementsystemspring.authentication.mapper.TokenAuthMapper;
+import org.example.schoolmanagementsystemspring.authentication.repository.TokenRepository;
+import org.example.schoolmanagementsystemspring.mail.EmailService;
+import org.example.schoolmanagementsystemspring.user.entity.Role;
+import org.example.schoolmanagementsystemspring.user.entity.User;
+import org.example.schoolmanagementsystemspring.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+class AuthenticationServiceImplTest {
+
+    private UserRepository userRepository;
+
+    private TokenRepository tokenRepository;
+
+    private AuthenticationManager manager;
+
+    private JwtService jwtService;
+
+    private TransactionTemplate transactionTemplate;
+
+    private AuthenticationServiceImpl authenticationService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        tokenRepository = mock(TokenRepository.class);
+        manager = mock(AuthenticationManager.class);
+        jwtService = mock(JwtService.class);
+        transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        authenticationService = new AuthenticationServiceImpl(userRepository, tokenRepository, manager, jwtService,
+                new TokenAuthMapper(), mock(EmailService.class), mock(TokenCacheService.class), mock(TokenVersionService.class),
+                transactionTemplate);
+        ReflectionTestUtils.setField(authenticationService, "mode", AuthenticationMode.TOKEN_TABLE);
+    }
+
+    @Test
+    void authenticateTest() throws Exception {
+        User user = createUser();
+        when(manager.authenticate(any())).thenReturn(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        when(jwtService.generateToken(eq(user), anyMap())).thenReturn("access-token");
+        when(jwtService.generateRefreshToken(user)).thenReturn("refresh-token");
+
+        AuthenticationResponse response = authenticationService.authenticate(new AuthenticationRequestDto(user.getEmail(), "password"));
+
+        assertEquals("access-token", response.accessToken());
+        assertEquals("refresh-token", response.refreshToken());
+        // the principal loaded by the authentication manager is reused
+        verify(userRepository, never()).findByEmailValid(any());
+        verify(tokenRepository).expireValidTokensByUserId(user.getId());
+        verify(tokenRepository).save(any(Token.class));
+        verify(transactionTemplate, times(1)).execute(any());
+    }
+
+    @Test
+    void badCredentialsTest() {
+        when(manager.authenticate(any())).thenThrow(new BadCredentialsException("Bad credentials"));
+
+        assertThrows(BadCredentialsException.class, () -> authenticationService.authenticate(new AuthenticationRequestDto("francisco.freitas@gmail.com", "wrong")));
+
+        // a failed login neither signs a token nor writes to the database
+        verifyNoInteractions(jwtService, tokenRepository, userRepository, transactionTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void generateActivationCodesTest() {
+        ReflectionTestUtils.setField(authenticationService, "length", 6);
+        List<byte[]> colliding = new ArrayList<>();
+        when(tokenRepository.findExistingHashes(anyCollection())).thenAnswer(invocation -> {
+            // the first code of the first query is already stored
+            if (!colliding.isEmpty()) return List.of();
+            colliding.add(invocation.<Collection<byte[]>>getArgument(0).iterator().next());
+            return List.copyOf(colliding);
+        });
+        when(tokenRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        List<User> users = List.of(createUser(), createUser(), createUser());
+
+        authenticationService.generateActivationCodes(users);
+
+        ArgumentCaptor<Collection<byte[]>> checked = ArgumentCaptor.forClass(Collection.class);
+        verify(tokenRepository, times(2)).findExistingHashes(checked.capture());
+        assertEquals(3, checked.getAllValues().get(0).size());
+        assertEquals(1, checked.getAllValues().get(1).size());
+        verify(tokenRepository, never()).existsByToken(any());
+        ArgumentCaptor<List<Token>> saved = ArgumentCaptor.forClass(List.class);
+        verify(tokenRepository).saveAll(saved.capture());
+        assertEquals(3, saved.getValue().stream().map(Token::getValue).distinct().count());
+        assertTrue(saved.getValue().stream().noneMatch(token -> Arrays.equals(Token.hash(token.getValue()), colliding.get(0))));
+    }
+
+    private User createUser() {
+        return User
+                .builder()
+                .id(1)
+                .firstName("Francisco")
+                .lastName("Freitas")
+                .email("francisco.freitas@gmail.com")
+                .password("password")
+                .role(Role.TEACHER)
+                .isEnabled(true)
+                .build();
+    }
+}
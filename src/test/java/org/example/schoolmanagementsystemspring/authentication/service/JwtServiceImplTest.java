@@ -0,0 +1,93 @@
+package org.example.schoolmanagementsystemspring.authentication.service;
+
+import io.jsonwebtoken.JwtException;
+import org.example.schoolmanagementsystemspring.authentication.dto.TokenClaims;
+import org.example.schoolmanagementsystemspring.user.entity.Role;
+import org.example.schoolmanagementsystemspring.user.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+class JwtServiceImplTest {
+
+    private static final String SECRET = "1ziBfO3ls0+XFugZPnPLiLbTWoGDxB8e3W1kKISsJZPfIvstCGVqJEV67f0hqWGtjqvIwuQAEQD23/Pzt5p0/A==";
+
+    private JwtServiceImpl jwtService;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtServiceImpl();
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtService, "expireIn", 300000L);
+        ReflectionTestUtils.setField(jwtService, "expireRefreshTokenIn", 3600000L);
+        ReflectionTestUtils.setField(jwtService, "issuer", "School-Management-System-Spring");
+        jwtService.init();
+    }
+
+    @Test
+    void parseClaimsTest() {
+        User user = createUser();
+        String token = jwtService.generateToken(user, Collections.emptyMap());
+
+        TokenClaims claims = jwtService.parseClaims(token);
+
+        assertEquals("francisco.freitas@gmail.com", claims.subject());
+        assertTrue(claims.isNonExpired());
+        assertTrue(claims.audience().contains(Role.TEACHER.name()));
+        assertTrue(claims.authorities().contains("ROLE_TEACHER"));
+        assertTrue(claims.authorities().contains("teacher:read"));
+        assertTrue(jwtService.isTokenValid(claims, user));
+    }
+
+    @Test
+    void tokenVersionClaimsTest() {
+        User user = createUser();
+        user.setId(7);
+        user.setTokenVersion(3);
+
+        TokenClaims claims = jwtService.parseClaims(jwtService.generateToken(user, Collections.emptyMap()));
+        TokenClaims refreshClaims = jwtService.parseClaims(jwtService.generateRefreshToken(user));
+
+        assertEquals(7, claims.userId());
+        assertEquals(3, claims.tokenVersion());
+        assertNull(refreshClaims.tokenVersion());
+    }
+
+    @Test
+    void invalidSubjectTest() {
+        String token = jwtService.generateToken(createUser(), Collections.emptyMap());
+        User other = createUser();
+        other.setEmail("other@gmail.com");
+
+        assertFalse(jwtService.isTokenValid(jwtService.parseClaims(token), other));
+    }
+
+    @Test
+    void invalidSignatureTest() {
+        String token = jwtService.generateToken(createUser(), Collections.emptyMap());
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> jwtService.parseClaims(tampered));
+    }
+
+    private User createUser() {
+        return User
+                .builder()
+                .firstName("Francisco")
+                .lastName("Freitas")
+                .email("francisco.freitas@gmail.com")
+                .password("password")
+                .role(Role.TEACHER)
+                .isEnabled(true)
+                .build();
+    }
+}
@@ -0,0 +1,124 @@
+package org.example.schoolmanagementsystemspring.authentication.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.schoolmanagementsystemspring.config.ExecutorBusyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+class PasswordHashServiceTest {
+
+    private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4);
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ThreadPoolTaskExecutor executor;
+
+    private PasswordHashService passwordHashService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setThreadNamePrefix("Thread Hash -");
+        executor.initialize();
+        passwordHashService = new PasswordHashService(encoder, executor, Duration.ofSeconds(10), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void encodeTest() {
+        String hash = passwordHashService.encode("password");
+
+        assertTrue(encoder.matches("password", hash));
+        assertEquals(1, meterRegistry.get("password.hash").timer().count());
+    }
+
+    @Test
+    void encodeAllKeepsOrderTest() {
+        List<String> passwords = List.of("password1", "password2", "password3", "password4", "password5");
+
+        List<String> hashes = passwordHashService.encodeAll(passwords);
+
+        assertEquals(passwords.size(), hashes.size());
+        for (int i = 0; i < passwords.size(); i++)
+            assertTrue(encoder.matches(passwords.get(i), hashes.get(i)));
+        assertEquals(passwords.size(), meterRegistry.get("password.hash").timer().count());
+    }
+
+    @Test
+    void rejectedHashFailsTest() throws InterruptedException {
+        ThreadPoolTaskExecutor full = singleThreadExecutor(new ThreadPoolExecutor.AbortPolicy());
+        CountDownLatch latch = new CountDownLatch(1);
+        try {
+            full.execute(() -> await(latch));
+            PasswordHashService service = new PasswordHashService(encoder, full, Duration.ofSeconds(10), meterRegistry);
+
+            assertThrows(ExecutorBusyException.class, () -> service.encode("password"));
+        } finally {
+            latch.countDown();
+            full.shutdown();
+        }
+    }
+
+    @Test
+    void droppedHashTimesOutTest() {
+        ThreadPoolTaskExecutor full = singleThreadExecutor(new ThreadPoolExecutor.DiscardPolicy());
+        CountDownLatch latch = new CountDownLatch(1);
+        try {
+            full.execute(() -> await(latch));
+            PasswordHashService service = new PasswordHashService(encoder, full, Duration.ofMillis(100), meterRegistry);
+
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+                assertThrows(ExecutorBusyException.class, () -> service.encodeAll(List.of("password1", "password2")));
+            });
+        } finally {
+            latch.countDown();
+            full.shutdown();
+        }
+    }
+
+    @Test
+    void encodeFailureTest() {
+        assertThrows(IllegalArgumentException.class, () -> passwordHashService.encode(null));
+    }
+
+    private ThreadPoolTaskExecutor singleThreadExecutor(RejectedExecutionHandler handler) {
+        ThreadPoolTaskExecutor full = new ThreadPoolTaskExecutor();
+        full.setCorePoolSize(1);
+        full.setMaxPoolSize(1);
+        full.setQueueCapacity(0);
+        full.setRejectedExecutionHandler(handler);
+        full.initialize();
+        return full;
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.schoolmanagementsystemspring.authentication.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.schoolmanagementsystemspring.authentication.entity.RateLimitRule;
+import org.example.schoolmanagementsystemspring.authentication.exception.TooManyRequestsException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+class RateLimiterServiceTest {
+
+    private final AtomicLong time = new AtomicLong();
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RateLimiterService rateLimiterService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ObjectProvider<RateLimitStore> storeProvider = mock(ObjectProvider.class);
+        when(storeProvider.getIfAvailable(any(Supplier.class))).thenReturn(new InMemoryRateLimitStore(100, Duration.ofMinutes(10), time::get));
+        rateLimiterService = new RateLimiterService(storeProvider, meterRegistry);
+        ReflectionTestUtils.setField(rateLimiterService, "enabled", true);
+        ReflectionTestUtils.setField(rateLimiterService, "maximumKeys", 100L);
+        for (String rule : new String[]{"authenticateIp", "authenticateEmail", "activationCodeIp", "activationCodeEmail"}) {
+            ReflectionTestUtils.setField(rateLimiterService, rule + "Capacity", 3L);
+            ReflectionTestUtils.setField(rateLimiterService, rule + "Period", Duration.ofMinutes(1));
+        }
+        rateLimiterService.init();
+    }
+
+    @Test
+    void bucketRefillTest() {
+        for (int i = 0; i < 3; i++)
+            assertEquals(0, rateLimiterService.tryAcquire(RateLimitRule.AUTHENTICATE_IP, "127.0.0.1"));
+
+        // one token is refilled every 20 seconds
+        assertEquals(20, rateLimiterService.tryAcquire(RateLimitRule.AUTHENTICATE_IP, "127.0.0.1"));
+        assertEquals(0, rateLimiterService.tryAcquire(RateLimitRule.AUTHENTICATE_IP, "127.0.0.2"));
+
+        time.addAndGet(TimeUnit.SECONDS.toNanos(21));
+        assertEquals(0, rateLimiterService.tryAcquire(RateLimitRule.AUTHENTICATE_IP, "127.0.0.1"));
+        assertTrue(rateLimiterService.tryAcquire(RateLimitRule.AUTHENTICATE_IP, "127.0.0.1") > 0);
+
+        assertEquals(5, meterRegistry.get("rate.limit").tag("rule", "authenticate_ip").tag("outcome", "allowed").counter().count());
+        assertEquals(2, meterRegistry.get("rate.limit").tag("rule", "authenticate_ip").tag("outcome", "rejected").counter().count());
+    }
+
+    @Test
+    void rulesAndKeysAreIndependentTest() throws Exception {
+        for (int i = 0; i < 3; i++)
+            rateLimiterService.check(RateLimitRule.ACTIVATION_CODE_EMAIL, "francisco.freitas@gmail.com");
+
+        TooManyRequestsException ex = assertThrows(TooManyRequestsException.class,
+                () -> rateLimiterService.check(RateLimitRule.ACTIVATION_CODE_EMAIL, " Francisco.Freitas@gmail.com"));
+        assertEquals(20, ex.getRetryAfter());
+        assertDoesNotThrow(() -> rateLimiterService.check(RateLimitRule.AUTHENTICATE_EMAIL, "francisco.freitas@gmail.com"));
+    }
+
+    @Test
+    void disabledTest() {
+        ReflectionTestUtils.setField(rateLimiterService, "enabled", false);
+
+        for (int i = 0; i < 10; i++)
+            assertEquals(0, rateLimiterService.tryAcquire(RateLimitRule.AUTHENTICATE_IP, "127.0.0.1"));
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.schoolmanagementsystemspring.authentication.service;
+
+import org.example.schoolmanagementsystemspring.user.entity.Role;
+import org.example.schoolmanagementsystemspring.user.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+class TokenCacheServiceTest {
+
+    private TokenCacheService tokenCacheService;
+
+    @BeforeEach
+    void setUp() {
+        tokenCacheService = new TokenCacheService();
+        ReflectionTestUtils.setField(tokenCacheService, "maximumSize", 100L);
+        tokenCacheService.init();
+    }
+
+    @Test
+    void cachedTokenTest() {
+        User user = createUser();
+        tokenCacheService.put("token", user, inFiveMinutes(), System.nanoTime());
+
+        assertTrue(tokenCacheService.getUser("token").isPresent());
+        assertTrue(tokenCacheService.getUser("other-token").isEmpty());
+    }
+
+    @Test
+    void expiredTokenTest() {
+        tokenCacheService.put("token", createUser(), new Date(System.currentTimeMillis() - 1000), System.nanoTime());
+
+        assertTrue(tokenCacheService.getUser("token").isEmpty());
+    }
+
+    @Test
+    void invalidateTokenTest() {
+        User user = createUser();
+        long loadedAt = System.nanoTime();
+        tokenCacheService.put("token", user, inFiveMinutes(), loadedAt);
+        tokenCacheService.invalidate("token", user.getId());
+
+        assertTrue(tokenCacheService.getUser("token").isEmpty());
+
+        // a request that read the token before the revocation must not cache it again
+        tokenCacheService.put("token", user, inFiveMinutes(), loadedAt);
+        assertTrue(tokenCacheService.getUser("token").isEmpty());
+    }
+
+    @Test
+    void invalidateUserTest() {
+        User user = createUser();
+        tokenCacheService.put("token-1", user, inFiveMinutes(), System.nanoTime());
+        tokenCacheService.put("token-2", user, inFiveMinutes(), System.nanoTime());
+        tokenCacheService.invalidateUser(user.getId());
+
+        assertTrue(tokenCacheService.getUser("token-1").isEmpty());
+        assertTrue(tokenCacheService.getUser("token-2").isEmpty());
+    }
+
+    private Date inFiveMinutes() {
+        return new Date(System.currentTimeMillis() + 300000);
+    }
+
+    private User createUser() {
+        return User
+                .builder()
+                .id(1)
+                .firstName("Francisco")
+                .lastName("Freitas")
+                .email("francisco.freitas@gmail.com")
+                .password("password")
+                .role(Role.ADMIN)
+                .isEnabled(true)
+                .build();
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.schoolmanagementsystemspring.authentication.service;
+
+import org.example.schoolmanagementsystemspring.user.entity.Role;
+import org.example.schoolmanagementsystemspring.user.entity.User;
+import org.example.schoolmanagementsystemspring.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+class TokenVersionServiceTest {
+
+    private UserRepository userRepository;
+
+    private TokenVersionService tokenVersionService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        tokenVersionService = new TokenVersionService(userRepository);
+        ReflectionTestUtils.setField(tokenVersionService, "maximumSize", 100L);
+        ReflectionTestUtils.setField(tokenVersionService, "refreshInterval", Duration.ofMinutes(1));
+        tokenVersionService.init();
+    }
+
+    @Test
+    void currentVersionTest() {
+        when(userRepository.findTokenVersionById(1)).thenReturn(Optional.of(0));
+
+        assertTrue(tokenVersionService.isCurrent(1, 0));
+        assertTrue(tokenVersionService.isCurrent(1, 0));
+        assertFalse(tokenVersionService.isCurrent(1, null));
+        verify(userRepository, times(1)).findTokenVersionById(1);
+    }
+
+    @Test
+    void revokeTest() {
+        User user = createUser();
+        when(userRepository.findTokenVersionById(1)).thenReturn(Optional.of(0), Optional.of(1));
+
+        assertTrue(tokenVersionService.isCurrent(1, 0));
+        tokenVersionService.revoke(user);
+
+        verify(userRepository).incrementTokenVersion(1);
+        assertEquals(1, user.getTokenVersion());
+        assertFalse(tokenVersionService.isCurrent(1, 0));
+        assertTrue(tokenVersionService.isCurrent(1, 1));
+    }
+
+    private User createUser() {
+        return User
+                .builder()
+                .id(1)
+                .email("francisco.freitas@gmail.com")
+                .role(Role.ADMIN)
+                .isEnabled(true)
+                .build();
+    }
+}
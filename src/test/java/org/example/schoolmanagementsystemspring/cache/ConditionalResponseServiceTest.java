@@ -0,0 +1,114 @@
+package org.example.schoolmanagementsystemspring.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+class ConditionalResponseServiceTest {
+
+    private static final ResourceVersion VERSION = new ResourceVersion(2L, 3L, LocalDateTime.of(2024, 3, 1, 10, 0));
+
+    private ConditionalResponseService service;
+
+    private MockHttpServletRequest request;
+
+    private MockHttpServletResponse response;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        service = new ConditionalResponseService();
+        ReflectionTestUtils.setField(service, "schoolsMaxAge", Duration.ofSeconds(60));
+        ReflectionTestUtils.setField(service, "schoolsShared", true);
+        ReflectionTestUtils.setField(service, "futureEventsMaxAge", Duration.ZERO);
+        ReflectionTestUtils.setField(service, "futureEventsShared", false);
+        ReflectionTestUtils.setField(service, "courseTextbooksMaxAge", Duration.ZERO);
+        ReflectionTestUtils.setField(service, "courseTextbooksShared", false);
+        service.init();
+        request = new MockHttpServletRequest("GET", "/api/v1/school/all");
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    void firstRequestTest() {
+        ResponseEntity<List<String>> entity = respond(CachedResource.SCHOOLS, VERSION);
+
+        assertEquals(HttpStatus.OK, entity.getStatusCode());
+        assertEquals(List.of("school"), entity.getBody());
+        assertEquals(1, loads.get());
+        assertEquals("max-age=60, must-revalidate, public", entity.getHeaders().getCacheControl());
+        assertEquals(VERSION.eTag(), response.getHeader(HttpHeaders.ETAG));
+        assertNull(response.getHeader(HttpHeaders.LAST_MODIFIED));
+    }
+
+    @Test
+    void notModifiedTest() {
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, VERSION.eTag());
+
+        ResponseEntity<List<String>> entity = respond(CachedResource.FUTURE_EVENTS, VERSION);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, entity.getStatusCode());
+        assertNull(entity.getBody());
+        assertEquals(0, loads.get());
+        assertEquals("no-cache, private", entity.getHeaders().getCacheControl());
+        assertEquals(304, response.getStatus());
+    }
+
+    @Test
+    void modifiedTest() {
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, VERSION.eTag());
+        ResourceVersion added = new ResourceVersion(3L, 7L, VERSION.lastModified());
+
+        ResponseEntity<List<String>> entity = respond(CachedResource.COURSE_TEXTBOOKS, added);
+
+        assertEquals(HttpStatus.OK, entity.getStatusCode());
+        assertEquals(1, loads.get());
+        assertNotEquals(VERSION.eTag(), added.eTag());
+        assertEquals(added.eTag(), response.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void ifModifiedSinceIgnoredTest() {
+        // a row was removed, so the last modification date did not move but the list changed
+        request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, System.currentTimeMillis());
+        ResourceVersion removed = new ResourceVersion(1L, 1L, VERSION.lastModified());
+
+        ResponseEntity<List<String>> entity = respond(CachedResource.SCHOOLS, removed);
+
+        assertEquals(HttpStatus.OK, entity.getStatusCode());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void emptyListTest() {
+        ResourceVersion empty = new ResourceVersion(0L, null, null);
+
+        assertEquals("\"0-0-ffffffffffffffff\"", empty.eTag());
+    }
+
+    private ResponseEntity<List<String>> respond(CachedResource resource, ResourceVersion version) {
+        return service.respond(new ServletWebRequest(request, response), resource, version, () -> {
+            loads.incrementAndGet();
+            return List.of("school");
+        });
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.schoolmanagementsystemspring.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+class DataSourceConfigurationTest {
+
+    private DataSource primary;
+
+    private DataSource replica;
+
+    private TransactionTemplate transactionTemplate;
+
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        primary = mock(DataSource.class);
+        replica = mock(DataSource.class);
+        when(primary.getConnection()).thenReturn(mock(Connection.class));
+        when(replica.getConnection()).thenReturn(mock(Connection.class));
+        dataSource = new DataSourceConfiguration().dataSource(primary, replica);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @Test
+    void readOnlyTransactionTest() throws Exception {
+        transactionTemplate.setReadOnly(true);
+
+        transactionTemplate.executeWithoutResult(status -> query());
+
+        verify(replica).getConnection();
+        verify(primary, never()).getConnection();
+    }
+
+    @Test
+    void readWriteTransactionTest() throws Exception {
+        transactionTemplate.executeWithoutResult(status -> query());
+
+        verify(primary).getConnection();
+        verify(replica, never()).getConnection();
+    }
+
+    private void query() {
+        try {
+            DataSourceUtils.getConnection(dataSource).prepareStatement("select 1");
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.schoolmanagementsystemspring.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+class ExecutorConfigurationTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ExecutorConfiguration configuration;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        configuration = new ExecutorConfiguration(meterRegistry);
+        ReflectionTestUtils.setField(configuration, "blockTimeout", 50L);
+        ReflectionTestUtils.setField(configuration, "imagePoolSize", 1);
+        ReflectionTestUtils.setField(configuration, "imageQueueCapacity", 1);
+        ReflectionTestUtils.setField(configuration, "imageRejectionPolicy", RejectionPolicy.BLOCK);
+        ReflectionTestUtils.setField(configuration, "backgroundPoolSize", 1);
+        ReflectionTestUtils.setField(configuration, "backgroundQueueCapacity", 1);
+        ReflectionTestUtils.setField(configuration, "backgroundRejectionPolicy", RejectionPolicy.BLOCK);
+    }
+
+    @Test
+    void dropPolicyTest() {
+        ReflectionTestUtils.setField(configuration, "backgroundRejectionPolicy", RejectionPolicy.DROP);
+        ThreadPoolTaskExecutor executor = configuration.backgroundExecutor();
+        CountDownLatch latch = new CountDownLatch(1);
+        try {
+            executor.execute(() -> await(latch));
+            executor.execute(() -> await(latch));
+
+            assertDoesNotThrow(() -> executor.execute(() -> { }));
+            assertEquals(1, meterRegistry.get("executor.rejected").tag("name", "backgroundExecutor").counter().count());
+        } finally {
+            latch.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void blockPolicyTest() {
+        ThreadPoolTaskExecutor executor = configuration.backgroundExecutor();
+        CountDownLatch latch = new CountDownLatch(1);
+        try {
+            executor.execute(() -> await(latch));
+            executor.execute(() -> await(latch));
+
+            assertThrows(TaskRejectedException.class, () -> executor.execute(() -> { }));
+        } finally {
+            latch.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void dropPolicyRefusedForAwaitedTasksTest() {
+        ReflectionTestUtils.setField(configuration, "imageRejectionPolicy", RejectionPolicy.DROP);
+        ReflectionTestUtils.setField(configuration, "hashRejectionPolicy", RejectionPolicy.DROP);
+
+        assertThrows(IllegalStateException.class, () -> configuration.imageExecutor());
+        assertThrows(IllegalStateException.class, () -> configuration.hashExecutor());
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.schoolmanagementsystemspring.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.schoolmanagementsystemspring.course.Course;
+import org.example.schoolmanagementsystemspring.event.Event;
+import org.example.schoolmanagementsystemspring.school.entity.School;
+import org.example.schoolmanagementsystemspring.textbook.TextBook;
+import org.hibernate.annotations.Cache;
+import org.hibernate.cache.spi.RegionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.cache.CacheManager;
+import java.time.Duration;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+class SecondLevelCacheConfigurationTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private SecondLevelCacheConfiguration configuration;
+
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        configuration = new SecondLevelCacheConfiguration();
+        ReflectionTestUtils.setField(configuration, "maximumSize", 100L);
+        ReflectionTestUtils.setField(configuration, "expireAfterWrite", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(configuration, "queryMaximumSize", 10L);
+        cacheManager = configuration.entityCacheManager(meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cacheManager.close();
+    }
+
+    @Test
+    void regionsTest() {
+        Stream.of(School.class, Course.class, TextBook.class, Event.class).forEach(entity -> {
+            assertNotNull(entity.getAnnotation(Cache.class), entity.getSimpleName() + " is not cached");
+            assertNotNull(cacheManager.getCache(entity.getName()));
+        });
+        assertNotNull(cacheManager.getCache(Course.class.getName() + ".textBooks"));
+        assertNotNull(cacheManager.getCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME));
+        assertNotNull(cacheManager.getCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME));
+    }
+
+    @Test
+    void metricsTest() {
+        javax.cache.Cache<Object, Object> cache = cacheManager.getCache(School.class.getName());
+        cache.put(1, "school");
+        cache.get(1);
+        cache.get(2);
+
+        FunctionCounter hits = meterRegistry.get("cache.gets").tag("cache", School.class.getName()).tag("result", "hit").functionCounter();
+        FunctionCounter misses = meterRegistry.get("cache.gets").tag("cache", School.class.getName()).tag("result", "miss").functionCounter();
+        assertEquals(1, hits.count());
+        assertEquals(1, misses.count());
+    }
+
+    @Test
+    void independentContextsTest() {
+        CacheManager other = configuration.entityCacheManager(new SimpleMeterRegistry());
+        try {
+            assertNotSame(cacheManager, other);
+        } finally {
+            other.close();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.schoolmanagementsystemspring.mail;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+class EmailOutboxDispatcherTest {
+
+    private EmailOutboxRepository outboxRepository;
+
+    private EmailService emailService;
+
+    private JavaMailSender mailSender;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private EmailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        outboxRepository = mock(EmailOutboxRepository.class);
+        emailService = mock(EmailService.class);
+        mailSender = mock(JavaMailSender.class);
+        meterRegistry = new SimpleMeterRegistry();
+        when(emailService.createMessage(any())).thenAnswer(invocation -> new MimeMessage((Session) null));
+        TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        dispatcher = new EmailOutboxDispatcher(outboxRepository, emailService, mailSender, transactionTemplate, meterRegistry);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 10);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 2);
+        ReflectionTestUtils.setField(dispatcher, "backoff", 1000L);
+        dispatcher.init();
+    }
+
+    @Test
+    void sendBatchTest() {
+        EmailOutbox first = createOutbox("first", 0);
+        EmailOutbox second = createOutbox("second", 0);
+        when(outboxRepository.findDue(any(), any())).thenReturn(List.of(first, second));
+
+        dispatcher.dispatch();
+
+        verify(mailSender, times(1)).send(any(MimeMessage[].class));
+        assertEquals(EmailOutboxStatus.SENT, first.getStatus());
+        assertEquals(EmailOutboxStatus.SENT, second.getStatus());
+        assertEquals(2, meterRegistry.get("email.outbox.sent").counter().count());
+    }
+
+    @Test
+    void retryAndFailTest() {
+        EmailOutbox retried = createOutbox("retried", 0);
+        EmailOutbox failed = createOutbox("failed", 1);
+        when(outboxRepository.findDue(any(), any())).thenReturn(List.of(retried, failed));
+        doThrow(new MailSendException("Connection refused")).when(mailSender).send(any(MimeMessage[].class));
+
+        dispatcher.dispatch();
+
+        assertEquals(EmailOutboxStatus.PENDING, retried.getStatus());
+        assertEquals(1, retried.getAttempts());
+        assertTrue(retried.getNextAttemptAt().isAfter(LocalDateTime.now()));
+        assertEquals(EmailOutboxStatus.FAILED, failed.getStatus());
+        assertEquals(1, meterRegistry.get("email.outbox.retried").counter().count());
+        assertEquals(1, meterRegistry.get("email.outbox.failed").counter().count());
+    }
+
+    private EmailOutbox createOutbox(String key, int attempts) {
+        return EmailOutbox
+                .builder()
+                .idempotencyKey(key)
+                .from("francisco.freitas.ff@gmail.com")
+                .to("francisco.freitas@gmail.com")
+                .subject("Account Confirmation")
+                .template(EmailTemplate.CONFIRM_EMAIL)
+                .templateProperties(new HashMap<>(Map.of("activationCode", "123456")))
+                .resources(new HashMap<>())
+                .status(EmailOutboxStatus.PENDING)
+                .attempts(attempts)
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
+    }
+}
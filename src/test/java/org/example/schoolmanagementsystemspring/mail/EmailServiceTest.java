@@ -0,0 +1,64 @@
+package org.example.schoolmanagementsystemspring.mail;
+
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.thymeleaf.context.IContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+
+import java.util.HashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+class EmailServiceTest {
+
+    private EmailService emailService;
+
+    @BeforeEach
+    void setUp() {
+        JavaMailSender mailSender = mock(JavaMailSender.class);
+        SpringTemplateEngine engine = mock(SpringTemplateEngine.class);
+        when(mailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage((Session) null));
+        when(engine.process(anyString(), any(IContext.class))).thenReturn("<p>Activation Code</p>");
+        emailService = new EmailService(mailSender, engine, mock(EmailOutboxRepository.class));
+    }
+
+    @Test
+    void inlineResourceLoadedOnceTest() throws Exception {
+        ClassPathResource first = spy(new ClassPathResource("./static/images/logo.png"));
+        ClassPathResource second = spy(new ClassPathResource("static/images/logo.png"));
+
+        MimeMessage message = emailService.createMessage(createEmail(first));
+        emailService.createMessage(createEmail(second));
+
+        assertNotNull(message.getContent());
+        verify(first, times(1)).getInputStream();
+        verify(second, never()).getInputStream();
+    }
+
+    private Email createEmail(Resource logo) {
+        HashMap<String, Resource> resources = new HashMap<>();
+        resources.put("image", logo);
+        return Email
+                .builder()
+                .from("francisco.freitas.ff@gmail.com")
+                .to("francisco.freitas@gmail.com")
+                .subject("Account Confirmation")
+                .template(EmailTemplate.CONFIRM_EMAIL)
+                .templateProperties(new HashMap<>())
+                .resources(resources)
+                .build();
+    }
+}
@@ -0,0 +1,112 @@
+package org.example.schoolmanagementsystemspring.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+class FileResponseWriterTest {
+
+    @TempDir
+    Path directory;
+
+    private final FileResponseWriter writer = new FileResponseWriter();
+
+    private StoredFile file;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path path = Files.writeString(directory.resolve("avatar.png"), "0123456789");
+        file = new StoredFile(path, Files.size(path), Files.getLastModifiedTime(path).toMillis());
+    }
+
+    @Test
+    void fullContentTest() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        writer.write(file, MediaType.IMAGE_PNG, new MockHttpServletRequest("GET", "/"), response);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("0123456789", response.getContentAsString(StandardCharsets.UTF_8));
+        assertEquals(10, response.getContentLengthLong());
+        assertEquals(file.eTag(), response.getHeader(HttpHeaders.ETAG));
+        assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+    }
+
+    @Test
+    void notModifiedTest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, file.eTag());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        writer.write(file, MediaType.IMAGE_PNG, request, response);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void rangeTest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        writer.write(file, MediaType.IMAGE_PNG, request, response);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("2345", response.getContentAsString(StandardCharsets.UTF_8));
+        assertEquals("bytes 2-5/10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+
+        request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.RANGE, "bytes=20-");
+        response = new MockHttpServletResponse();
+
+        writer.write(file, MediaType.IMAGE_PNG, request, response);
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    void staleIfRangeTest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"stale\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        writer.write(file, MediaType.IMAGE_PNG, request, response);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("0123456789", response.getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void sendfileTest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.setAttribute(FileResponseWriter.SENDFILE_SUPPORT, Boolean.TRUE);
+        request.addHeader(HttpHeaders.RANGE, "bytes=-3");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        writer.write(file, MediaType.IMAGE_PNG, request, response);
+
+        assertEquals(206, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(file.path().toString(), request.getAttribute(FileResponseWriter.SENDFILE_FILENAME));
+        assertEquals(7L, request.getAttribute(FileResponseWriter.SENDFILE_START));
+        assertEquals(10L, request.getAttribute(FileResponseWriter.SENDFILE_END));
+    }
+}
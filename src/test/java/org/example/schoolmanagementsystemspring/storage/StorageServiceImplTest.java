@@ -0,0 +1,130 @@
+package org.example.schoolmanagementsystemspring.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+class StorageServiceImplTest {
+
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13, 'I', 'H', 'D', 'R'};
+
+    @TempDir
+    Path directory;
+
+    private StoredBlobRepository storedBlobRepository;
+
+    private StorageServiceImpl storageService;
+
+    @BeforeEach
+    void setUp() {
+        storedBlobRepository = mock(StoredBlobRepository.class);
+        storageService = new StorageServiceImpl(storedBlobRepository, new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(storageService, "mode", StorageMode.NAMED);
+        ReflectionTestUtils.setField(storageService, "gracePeriod", Duration.ofHours(1));
+        ReflectionTestUtils.setField(storageService, "batchSize", 10);
+        ReflectionTestUtils.setField(storageService, "profileDirectory", directory.resolve("profiles").toString());
+        ReflectionTestUtils.setField(storageService, "bookCoversDirectory", directory.resolve("covers").toString());
+        ReflectionTestUtils.setField(storageService, "maximumSize", 100L);
+        ReflectionTestUtils.setField(storageService, "expireAfterWrite", Duration.ofMinutes(10));
+        storageService.init();
+    }
+
+    @Test
+    void storeTest() throws Exception {
+        String fileName = storageService.store("avatar.png", new ByteArrayInputStream(PNG), StorageDirectory.PROFILE_IMAGE);
+
+        assertEquals("avatar.png", fileName);
+        assertArrayEquals(PNG, Files.readAllBytes(directory.resolve("profiles").resolve("avatar.png")));
+        assertEquals(1, Objects.requireNonNull(directory.resolve("profiles").toFile().list()).length);
+
+        StoredFile file = storageService.loadFile("avatar.png", StorageDirectory.PROFILE_IMAGE);
+        assertEquals(PNG.length, file.length());
+    }
+
+    @Test
+    void invalidContentTest() {
+        byte[] jpeg = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0, 0, 0, 0, 0, 0, 0};
+
+        assertThrows(InvalidFileException.class,
+                () -> storageService.store("avatar.png", new ByteArrayInputStream(jpeg), StorageDirectory.PROFILE_IMAGE));
+        assertThrows(InvalidFileException.class,
+                () -> storageService.store("avatar.png", new ByteArrayInputStream(new byte[0]), StorageDirectory.PROFILE_IMAGE));
+
+        // the temporary files are deleted
+        File[] files = directory.resolve("profiles").toFile().listFiles();
+        assertNotNull(files);
+        assertEquals(0, files.length);
+    }
+
+    @Test
+    void contentAddressedTest() throws Exception {
+        ReflectionTestUtils.setField(storageService, "mode", StorageMode.CONTENT_ADDRESSED);
+        String checksum = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(PNG));
+
+        String first = storageService.store("avatar.png", new ByteArrayInputStream(PNG), StorageDirectory.PROFILE_IMAGE);
+        String second = storageService.store("cover.png", new ByteArrayInputStream(PNG), StorageDirectory.PROFILE_IMAGE);
+
+        assertEquals(checksum + ".png", first);
+        assertEquals(first, second);
+        assertEquals(1, Objects.requireNonNull(directory.resolve("profiles").toFile().list()).length);
+        verify(storedBlobRepository, times(2)).retain(eq("PROFILE_IMAGE"), eq(first), any());
+        assertEquals("\"" + checksum + "\"", storageService.loadFile(first, StorageDirectory.PROFILE_IMAGE).eTag());
+
+        storageService.release(first, StorageDirectory.PROFILE_IMAGE);
+        verify(storedBlobRepository).release(eq(new StoredBlobId(StorageDirectory.PROFILE_IMAGE, first)), any());
+        assertTrue(Files.exists(directory.resolve("profiles").resolve(first)));
+    }
+
+    @Test
+    void collectGarbageTest() throws Exception {
+        ReflectionTestUtils.setField(storageService, "mode", StorageMode.CONTENT_ADDRESSED);
+        String unreferenced = storageService.store("avatar.png", new ByteArrayInputStream(PNG), StorageDirectory.PROFILE_IMAGE);
+        Path orphan = Files.write(directory.resolve("profiles").resolve("a".repeat(64) + ".png"), PNG);
+        Path legacy = Files.write(directory.resolve("profiles").resolve("first_last_1.png"), PNG);
+        for (Path path : new Path[]{orphan, legacy})
+            Files.setLastModifiedTime(path, FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+        when(storedBlobRepository.findUnreferenced(eq(StorageDirectory.PROFILE_IMAGE), any(), any())).thenReturn(List.of(unreferenced));
+        when(storedBlobRepository.deleteUnreferenced(eq(new StoredBlobId(StorageDirectory.PROFILE_IMAGE, unreferenced)), any())).thenReturn(1);
+        when(storedBlobRepository.findExisting(eq(StorageDirectory.PROFILE_IMAGE), anyCollection())).thenReturn(Set.of());
+
+        storageService.collectGarbage();
+
+        assertFalse(Files.exists(directory.resolve("profiles").resolve(unreferenced)));
+        // the orphan is adopted and deleted by a later run, and the files of the named mode are left untouched
+        assertTrue(Files.exists(orphan));
+        verify(storedBlobRepository).adopt(eq("PROFILE_IMAGE"), eq(orphan.getFileName().toString()), any());
+        assertTrue(Files.exists(legacy));
+    }
+
+    @Test
+    void outsideDirectoryTest() {
+        assertThrows(StorageException.class,
+                () -> storageService.store("../avatar.png", new ByteArrayInputStream(PNG), StorageDirectory.PROFILE_IMAGE));
+        assertFalse(Files.exists(directory.resolve("avatar.png")));
+    }
+}
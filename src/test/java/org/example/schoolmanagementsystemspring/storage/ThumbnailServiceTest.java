@@ -0,0 +1,180 @@
+package org.example.schoolmanagementsystemspring.storage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.schoolmanagementsystemspring.config.ExecutorBusyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+class ThumbnailServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private ThreadPoolTaskExecutor executor;
+
+    private ThumbnailService thumbnailService;
+
+    private StoredFile source;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.initialize();
+        thumbnailService = thumbnailService(executor, Duration.ofSeconds(10));
+
+        Path path = directory.resolve("avatar.png");
+        ImageIO.write(new BufferedImage(400, 200, BufferedImage.TYPE_INT_ARGB), "png", path.toFile());
+        source = new StoredFile(path, Files.size(path), Files.getLastModifiedTime(path).toMillis());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void memoryThumbnailTest() throws Exception {
+        Thumbnail thumbnail = thumbnailService.getThumbnail(source, StorageDirectory.PROFILE_IMAGE, 40);
+
+        assertNotNull(thumbnail.content());
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(thumbnail.content()));
+        assertEquals(48, image.getWidth());
+        assertEquals(24, image.getHeight());
+        assertNotEquals(source.eTag(), thumbnail.eTag());
+        assertSame(thumbnail, thumbnailService.getThumbnail(source, StorageDirectory.PROFILE_IMAGE, 48));
+    }
+
+    @Test
+    void diskThumbnailTest() throws Exception {
+        Thumbnail thumbnail = thumbnailService.getThumbnail(source, StorageDirectory.PROFILE_IMAGE, 200);
+
+        assertNull(thumbnail.content());
+        assertTrue(thumbnail.file().path().startsWith(directory.resolve("thumbnails")));
+        assertEquals(256, ImageIO.read(thumbnail.file().path().toFile()).getWidth());
+
+        thumbnailService.invalidate("avatar.png", StorageDirectory.PROFILE_IMAGE);
+        assertNotSame(thumbnail, thumbnailService.getThumbnail(source, StorageDirectory.PROFILE_IMAGE, 200));
+    }
+
+    @Test
+    void startupKeepsOtherFilesTest() throws Exception {
+        Path variants = directory.resolve("thumbnails").resolve("variants");
+        Path previous = Files.writeString(variants.resolve(UUID.randomUUID() + ".png"), "variant");
+        Path other = Files.writeString(variants.resolve("avatar.png"), "image");
+        Path nested = Files.createDirectories(variants.resolve("profiles")).resolve(UUID.randomUUID() + ".png");
+        Files.writeString(nested, "image");
+
+        thumbnailService.init();
+
+        assertFalse(Files.exists(previous));
+        assertTrue(Files.exists(other));
+        assertTrue(Files.exists(nested));
+        assertTrue(Files.exists(source.path()));
+    }
+
+    @Test
+    void smallSourceTest() throws Exception {
+        Path path = directory.resolve("icon.png");
+        ImageIO.write(new BufferedImage(32, 32, BufferedImage.TYPE_INT_ARGB), "png", path.toFile());
+        StoredFile icon = new StoredFile(path, Files.size(path), Files.getLastModifiedTime(path).toMillis());
+
+        Thumbnail thumbnail = thumbnailService.getThumbnail(icon, StorageDirectory.PROFILE_IMAGE, 48);
+
+        assertSame(icon, thumbnail.file());
+        assertThrows(IllegalArgumentException.class, () -> thumbnailService.getThumbnail(source, StorageDirectory.PROFILE_IMAGE, 0));
+    }
+
+    @Test
+    void rejectedThumbnailFailsTest() throws Exception {
+        ThreadPoolTaskExecutor full = singleThreadExecutor(new ThreadPoolExecutor.AbortPolicy());
+        CountDownLatch latch = new CountDownLatch(1);
+        try {
+            full.execute(() -> await(latch));
+            ThumbnailService service = thumbnailService(full, Duration.ofSeconds(10));
+
+            assertThrows(ExecutorBusyException.class, () -> service.getThumbnail(source, StorageDirectory.PROFILE_IMAGE, 48));
+
+            latch.countDown();
+            full.setMaxPoolSize(2);
+            assertNotNull(service.getThumbnail(source, StorageDirectory.PROFILE_IMAGE, 48).content());
+        } finally {
+            latch.countDown();
+            full.shutdown();
+        }
+    }
+
+    @Test
+    void droppedThumbnailTimesOutTest() throws Exception {
+        ThreadPoolTaskExecutor full = singleThreadExecutor(new ThreadPoolExecutor.DiscardPolicy());
+        CountDownLatch latch = new CountDownLatch(1);
+        try {
+            full.execute(() -> await(latch));
+            ThumbnailService service = thumbnailService(full, Duration.ofMillis(100));
+
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+                assertThrows(ExecutorBusyException.class, () -> service.getThumbnail(source, StorageDirectory.PROFILE_IMAGE, 48));
+            });
+
+            latch.countDown();
+            full.setMaxPoolSize(2);
+            assertNotNull(service.getThumbnail(source, StorageDirectory.PROFILE_IMAGE, 48).content());
+        } finally {
+            latch.countDown();
+            full.shutdown();
+        }
+    }
+
+    private ThumbnailService thumbnailService(ThreadPoolTaskExecutor executor, Duration timeout) throws Exception {
+        ThumbnailService service = new ThumbnailService(executor, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "directory", directory.resolve("thumbnails").toString());
+        ReflectionTestUtils.setField(service, "sizes", new int[]{256, 48, 96});
+        ReflectionTestUtils.setField(service, "memoryMaxSize", 96);
+        ReflectionTestUtils.setField(service, "memoryCapacity", DataSize.ofMegabytes(1));
+        ReflectionTestUtils.setField(service, "diskCapacity", DataSize.ofMegabytes(10));
+        ReflectionTestUtils.setField(service, "timeout", timeout);
+        service.init();
+        return service;
+    }
+
+    private ThreadPoolTaskExecutor singleThreadExecutor(RejectedExecutionHandler handler) {
+        ThreadPoolTaskExecutor full = new ThreadPoolTaskExecutor();
+        full.setCorePoolSize(1);
+        full.setMaxPoolSize(1);
+        full.setQueueCapacity(0);
+        full.setRejectedExecutionHandler(handler);
+        full.initialize();
+        return full;
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.schoolmanagementsystemspring.task;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.schoolmanagementsystemspring.authentication.repository.TokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+class ScheduledTasksServiceTest {
+
+    private TokenRepository tokenRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ScheduledTasksService scheduledTasksService;
+
+    @BeforeEach
+    void setUp() {
+        tokenRepository = mock(TokenRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        scheduledTasksService = new ScheduledTasksService(tokenRepository, meterRegistry);
+        ReflectionTestUtils.setField(scheduledTasksService, "chunkSize", 2);
+        ReflectionTestUtils.setField(scheduledTasksService, "rateLimit", 0);
+        ReflectionTestUtils.setField(scheduledTasksService, "maxChunks", 10);
+        ReflectionTestUtils.setField(scheduledTasksService, "jwtExpiration", 300000L);
+        ReflectionTestUtils.setField(scheduledTasksService, "codeExpiration", 10L);
+        scheduledTasksService.init();
+    }
+
+    @Test
+    void deleteExpiredTokensInChunksTest() {
+        when(tokenRepository.countPurgeable(any(), any())).thenReturn(3L);
+        when(tokenRepository.findPurgeableIds(eq(Integer.MIN_VALUE), any(), any(), any())).thenReturn(List.of(1, 2));
+        when(tokenRepository.findPurgeableIds(eq(2), any(), any(), any())).thenReturn(List.of(5));
+        when(tokenRepository.deleteByIds(anyList())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+
+        scheduledTasksService.deleteExpiredTokens();
+
+        verify(tokenRepository).deleteByIds(List.of(1, 2));
+        verify(tokenRepository).deleteByIds(List.of(5));
+        assertEquals(3, meterRegistry.get("tokens.purge.deleted").counter().count());
+        assertEquals(0, meterRegistry.get("tokens.purge.backlog").gauge().value());
+    }
+
+    @Test
+    void maxChunksPerRunTest() {
+        ReflectionTestUtils.setField(scheduledTasksService, "maxChunks", 2);
+        when(tokenRepository.countPurgeable(any(), any())).thenReturn(10L);
+        when(tokenRepository.findPurgeableIds(eq(Integer.MIN_VALUE), any(), any(), any())).thenReturn(List.of(1, 2));
+        when(tokenRepository.findPurgeableIds(eq(2), any(), any(), any())).thenReturn(List.of(3, 4));
+        when(tokenRepository.deleteByIds(anyList())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+
+        scheduledTasksService.deleteExpiredTokens();
+
+        verify(tokenRepository, times(2)).findPurgeableIds(any(), any(), any(), any());
+        verify(tokenRepository, times(2)).deleteByIds(anyList());
+        assertEquals(6, meterRegistry.get("tokens.purge.backlog").gauge().value());
+    }
+
+    @Test
+    void emptyBacklogTest() {
+        when(tokenRepository.countPurgeable(any(), any())).thenReturn(0L);
+
+        scheduledTasksService.deleteExpiredTokens();
+
+        verify(tokenRepository, never()).findPurgeableIds(any(), any(), any(), any());
+        verify(tokenRepository, never()).deleteByIds(anyList());
+    }
+}
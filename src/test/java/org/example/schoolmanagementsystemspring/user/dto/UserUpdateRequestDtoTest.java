@@ -0,0 +1,37 @@
+package org.example.schoolmanagementsystemspring.user.dto;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+class UserUpdateRequestDtoTest {
+
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Test
+    void passwordOmittedTest() {
+        UserUpdateRequestDto request = new UserUpdateRequestDto("Francisco", "Freitas", "francisco.freitas@gmail.com", null);
+
+        assertTrue(validator.validate(request).isEmpty());
+    }
+
+    @Test
+    void passwordTooShortTest() {
+        UserUpdateRequestDto request = new UserUpdateRequestDto("Francisco", "Freitas", "francisco.freitas@gmail.com", "short");
+
+        Set<ConstraintViolation<UserUpdateRequestDto>> violations = validator.validate(request);
+
+        assertEquals(1, violations.size());
+        assertEquals("password", violations.iterator().next().getPropertyPath().toString());
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.schoolmanagementsystemspring.user.entity;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author FFreitas
+ * <a href="https://www.linkedin.com/in/francisco-freitas-a289b91b3/">LinkedIn</a>
+ * <a href="https://github.com/FFreitas997/">Github</a>
+ */
+class RoleTest {
+
+    @Test
+    void sharedAuthoritiesTest() {
+        User user = User.builder().role(Role.TEACHER).build();
+
+        assertSame(Role.TEACHER.getAuthorities(), Role.TEACHER.getAuthorities());
+        assertSame(Role.TEACHER.getAuthorities(), user.getAuthorities());
+        assertThrows(UnsupportedOperationException.class, () -> Role.TEACHER.getAuthorities().add(new SimpleGrantedAuthority("ROLE_ADMIN")));
+    }
+
+    @Test
+    void authoritiesTest() {
+        assertEquals(17, Role.ADMIN.getAuthorities().size());
+        assertEquals("ROLE_PARENT", Role.PARENT.getAuthorityNames().get(4));
+        assertTrue(Role.STUDENT.getAuthorities().contains(new SimpleGrantedAuthority("student:read")));
+        assertEquals("teacher:create", Role.TEACHER.getAuthorityClaims().get(0).get("authority"));
+    }
+}